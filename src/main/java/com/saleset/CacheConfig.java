@@ -2,21 +2,41 @@ package com.saleset;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saleset.core.dto.LeadRoute;
+import com.saleset.core.entities.PhoneLookup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
 
     @Bean
-    public Cache<String, Set<String>> eventCache() {
+    public Cache<String, Integer> eventCache() {
         return Caffeine.newBuilder()
                 .expireAfterWrite(3, TimeUnit.HOURS) // Cache expires after 3 hours
                 .maximumSize(5000) // Store up to 5,000 entries
                 .build();
     }
 
+    @Bean
+    public Cache<String, PhoneLookup> phoneLookupCache(@Value("${phone.lookup.ttlDays:30}") int ttlDays,
+                                                       @Value("${phone.lookup.cacheMaxSize:50000}") long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttlDays, TimeUnit.DAYS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Bean
+    public Cache<String, LeadRoute> leadRouteCache(@Value("${leads.routeCache.maxSize:100000}") long maxSize,
+                                                   @Value("${leads.routeCache.ttlHours:24}") int ttlHours) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttlHours, TimeUnit.HOURS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
 }
@@ -12,6 +12,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -41,6 +43,17 @@ public class AddressRepo {
         }
     }
 
+    // Remove Transactional and use at service layer after testing.
+    @Transactional
+    public List<Address> findAddressesByIds(Collection<Integer> addressIds) {
+        if (addressIds.isEmpty()) return List.of();
+
+        String query = "SELECT a FROM Address a WHERE a.id IN :addressIds";
+        return entityManager.createQuery(query, Address.class)
+                .setParameter("addressIds", addressIds)
+                .getResultList();
+    }
+
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public Optional<Address> safeInsert(Address address) {
@@ -1,18 +1,23 @@
 package com.saleset.core.dao;
 
+import com.saleset.core.dto.ContactPhoneNumbers;
 import com.saleset.core.dto.request.LeadRequest;
 import com.saleset.core.entities.Contact;
+import com.saleset.core.util.PhoneNumberNormalizer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceException;
-import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public class ContactRepo {
@@ -21,6 +26,9 @@ public class ContactRepo {
     private static final Logger logger = LoggerFactory.getLogger(ContactRepo.class);
     private final EntityManager entityManager;
 
+    // Until contact_phones has been backfilled, lookups that miss it fall back to the contacts table.
+    private volatile boolean phoneTableComplete;
+
 
     @Autowired
     public ContactRepo(EntityManager entityManager) {
@@ -45,6 +53,25 @@ public class ContactRepo {
     }
 
 
+    // Remove Transactional and use at service layer after testing.
+    @Transactional
+    public List<Contact> findContactsByIds(Collection<Integer> contactIds) {
+        if (contactIds.isEmpty()) return List.of();
+
+        String query = "SELECT c FROM Contact c WHERE c.id IN :contactIds";
+        return entityManager.createQuery(query, Contact.class)
+                .setParameter("contactIds", contactIds)
+                .getResultList();
+    }
+
+
+    /**
+     * Inserts a contact together with its {@code contact_phones} rows, in one transaction. A number
+     * already registered to another contact keeps its existing owner.
+     *
+     * @param contact The new contact.
+     * @return The inserted contact, or empty if the insert failed.
+     */
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public Optional<Contact> safeInsert(Contact contact) {
@@ -54,6 +81,14 @@ public class ContactRepo {
             // Ensure immediate DB sync
             entityManager.flush();
 
+            for (String phone : toE164Set(contact.getPrimaryPhone(), contact.getSecondaryPhone())) {
+                entityManager.createNativeQuery("INSERT IGNORE INTO contact_phones (phone_e164, contact_id) " +
+                                "VALUES (:phone, :contactId)")
+                        .setParameter("phone", phone)
+                        .setParameter("contactId", contact.getId())
+                        .executeUpdate();
+            }
+
             return Optional.of(contact);
         } catch (PersistenceException ex) {
             logger.error("Insert failed. Contact: {} --- Message: {}", contact, ex.getMessage());
@@ -63,12 +98,15 @@ public class ContactRepo {
 
 
     /**
-     * Finds an existing contact in the database by comparing the primary and secondary phone numbers
-     * from the provided lead data with those stored in the database.
+     * Finds an existing contact whose primary or secondary phone matches the primary or secondary
+     * phone of the provided lead data.
      * <p>
      * The method ensures:
-     * - A query checks if the primary or secondary phone in the database matches the provided primary or secondary phone.
-     * - If the secondary phone in the lead data is null, only the primary phone is used in the query.
+     * - Numbers are resolved through the {@code contact_phones} table with one indexed {@code IN} lookup.
+     * - If the secondary phone in the lead data is null, only the primary phone is used.
+     * - If the two numbers belong to different contacts, the primary phone's contact wins.
+     * - Until {@link #markPhoneTableComplete()} is called, a miss is retried against the
+     *   {@code contacts} table, so contacts not yet backfilled are still found.
      *
      * @param leadData The lead data containing primary and secondary phone numbers to search for.
      * @return An Optional containing the matching Contact if found, otherwise an empty Optional.
@@ -76,23 +114,120 @@ public class ContactRepo {
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public Optional<Contact> findContactByPhone(LeadRequest leadData) {
-        try {
-            String query = "SELECT c FROM Contact c WHERE c.primaryPhone = :primaryPhone " +
-                    "OR c.secondaryPhone = :primaryPhone " +
-                    (leadData.getSecondaryPhone() != null ?
-                            "OR c.primaryPhone = :secondaryPhone OR c.secondaryPhone = :secondaryPhone" : "");
+        Set<String> phones = toE164Set(leadData.getPrimaryPhone(), leadData.getSecondaryPhone());
+        if (phones.isEmpty()) return Optional.empty();
+
+        String query = "SELECT c FROM ContactPhone cp JOIN Contact c ON c.id = cp.contactId " +
+                "WHERE cp.phoneE164 IN :phones " +
+                "ORDER BY CASE WHEN cp.phoneE164 = :primaryPhone THEN 0 ELSE 1 END, c.id";
+
+        Optional<Contact> contact = entityManager.createQuery(query, Contact.class)
+                .setParameter("phones", phones)
+                .setParameter("primaryPhone", phones.iterator().next())
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+
+        if (contact.isPresent() || phoneTableComplete) return contact;
+        return findContactByPhoneColumns(phones);
+    }
 
-            TypedQuery<Contact> queryObj = entityManager.createQuery(query, Contact.class)
-                    .setParameter("primaryPhone", leadData.getPrimaryPhone());
+    /**
+     * Tells whether any of the lead's numbers is registered in {@code contact_phones}, with an index-only
+     * lookup that loads no contact. Only conclusive once {@link #isPhoneTableComplete()}.
+     *
+     * @param leadData The lead data containing primary and secondary phone numbers to check.
+     * @return {@code true} if at least one of the numbers belongs to a contact.
+     */
+    @Transactional
+    public boolean isAnyPhoneRegistered(LeadRequest leadData) {
+        Set<String> phones = toE164Set(leadData.getPrimaryPhone(), leadData.getSecondaryPhone());
+        if (phones.isEmpty()) return false;
+
+        return !entityManager.createNativeQuery("SELECT 1 FROM contact_phones WHERE phone_e164 IN (:phones) LIMIT 1")
+                .setParameter("phones", phones)
+                .getResultList()
+                .isEmpty();
+    }
 
-            if (leadData.getSecondaryPhone() != null) {
-                queryObj.setParameter("secondaryPhone", leadData.getSecondaryPhone());
-            }
+    /**
+     * Switches {@link #findContactByPhone} to rely on {@code contact_phones} alone, once every existing
+     * contact's numbers have been registered there.
+     */
+    public void markPhoneTableComplete() { phoneTableComplete = true; }
 
-            return Optional.ofNullable(queryObj.getSingleResult());
-        } catch (NoResultException ex) {
-            return Optional.empty();
+    public boolean isPhoneTableComplete() { return phoneTableComplete; }
+
+
+    /**
+     * Registers the phones of contacts with ids in {@code [fromId, toId)} in {@code contact_phones}.
+     * Within the range, primary phones are registered before secondary ones and lower ids before
+     * higher ones; a number shared by several contacts stays with whichever was registered first.
+     *
+     * @return The number of phone rows added.
+     */
+    @Transactional
+    public int backfillContactPhones(int fromId, int toId) {
+        int added = 0;
+        for (String column : List.of("primary_phone", "secondary_phone")) {
+            added += entityManager.createNativeQuery("INSERT IGNORE INTO contact_phones (phone_e164, contact_id) " +
+                            "SELECT " + column + ", id FROM contacts WHERE id >= :fromId AND id < :toId " +
+                            "AND " + column + " LIKE '+1%' AND CHAR_LENGTH(" + column + ") = 12 ORDER BY id")
+                    .setParameter("fromId", fromId)
+                    .setParameter("toId", toId)
+                    .executeUpdate();
+        }
+        return added;
+    }
+
+
+    /**
+     * Returns the phone numbers of the next {@code pageSize} contacts after {@code afterId}, in id order,
+     * without loading full entities. Used to stream every known number, e.g. into a Bloom filter.
+     */
+    @Transactional
+    public List<ContactPhoneNumbers> findContactPhoneNumbersPage(int afterId, int pageSize) {
+        String query = "SELECT new com.saleset.core.dto.ContactPhoneNumbers(c.id, c.primaryPhone, c.secondaryPhone) " +
+                "FROM Contact c WHERE c.id > :afterId ORDER BY c.id";
+
+        return entityManager.createQuery(query, ContactPhoneNumbers.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+
+    @Transactional
+    public int findMaxContactId() {
+        Number maxId = (Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM contacts")
+                .getSingleResult();
+        return maxId.intValue();
+    }
+
+
+    // Pre-backfill lookup on the contacts columns; primary phone matches win, as in the indexed lookup.
+    private Optional<Contact> findContactByPhoneColumns(Set<String> phones) {
+        String query = "SELECT c FROM Contact c " +
+                "WHERE c.primaryPhone IN :phones OR c.secondaryPhone IN :phones " +
+                "ORDER BY CASE WHEN c.primaryPhone = :primaryPhone OR c.secondaryPhone = :primaryPhone " +
+                "THEN 0 ELSE 1 END, c.id";
+
+        return entityManager.createQuery(query, Contact.class)
+                .setParameter("phones", phones)
+                .setParameter("primaryPhone", phones.iterator().next())
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+    }
+
+    // Valid numbers in E.164 form, primary first; numbers that don't normalize are left out.
+    private static Set<String> toE164Set(String primaryPhone, String secondaryPhone) {
+        Set<String> phones = new LinkedHashSet<>(2);
+        for (String phone : new String[] { primaryPhone, secondaryPhone }) {
+            long e164 = PhoneNumberNormalizer.normalizeToE164Long(phone);
+            if (e164 != PhoneNumberNormalizer.INVALID) phones.add(PhoneNumberNormalizer.toE164String(e164));
         }
+        return phones;
     }
 
 
@@ -8,8 +8,20 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,11 +29,21 @@ import java.util.Optional;
 public class EventRepo {
 
     private static final Logger logger = LoggerFactory.getLogger(EventRepo.class);
+
+    // A row hitting uk_events_dedup (lead_id, event_type, source, dedup_bucket) fails with a duplicate-key error.
+    private static final String INSERT_EVENT = "INSERT INTO events (lead_id, event_type, created_at, " +
+            "day_of_week, period_of_day, source, dedup_bucket) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final long bucketSeconds;
 
     @Autowired
-    public EventRepo(EntityManager entityManager) {
+    public EventRepo(EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                     @Value("${events.dedup.bucketMinutes:180}") long bucketMinutes) {
         this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketSeconds = Math.max(1, Duration.ofMinutes(bucketMinutes).toSeconds());
     }
 
     // Remove Transactional and use at service layer after testing.
@@ -40,6 +62,46 @@ public class EventRepo {
         }
     }
 
+    /**
+     * Inserts the event unless the same lead already has an event of the same type and source in the
+     * same {@code events.dedup.bucketMinutes} time bucket. The check is the unique key
+     * {@code uk_events_dedup}, so it holds across every node writing to the database, not just this JVM.
+     * <p>
+     * Buckets are fixed windows of {@code created_at}, so two events either side of a bucket boundary
+     * are both kept.
+     *
+     * @param event The event to insert; its {@code dedupBucket} and, if inserted, {@code id} are set.
+     * @return The inserted event, or empty if it was a duplicate or the insert failed.
+     */
+    public Optional<Event> insertIfAbsent(Event event) {
+        event.setDedupBucket(event.getCreatedAt().toEpochSecond(ZoneOffset.UTC) / bucketSeconds);
+
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS);
+                ps.setInt(1, event.getLeadId());
+                ps.setString(2, event.getEventType());
+                ps.setTimestamp(3, Timestamp.valueOf(event.getCreatedAt()));
+                ps.setString(4, event.getDayOfWeek());
+                ps.setString(5, event.getPeriodOfDay());
+                ps.setString(6, event.getSource());
+                ps.setLong(7, event.getDedupBucket());
+                return ps;
+            }, keyHolder);
+
+            Number id = keyHolder.getKey();
+            if (id != null) event.setId(id.intValue());
+            return Optional.of(event);
+        } catch (DuplicateKeyException ex) {
+            logger.debug("Duplicate event skipped by database: {}", event);
+            return Optional.empty();
+        } catch (DataAccessException ex) {
+            logger.error("Insert failed. Event: {} --- Message: {}", event, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public List<Event> findByLead(Lead lead) {
@@ -50,4 +112,15 @@ public class EventRepo {
                 .getResultList();
     }
 
+    // Remove Transactional and use at service layer after testing.
+    @Transactional
+    public List<Event> findByLeadIds(Collection<Integer> leadIds) {
+        if (leadIds.isEmpty()) return List.of();
+
+        String query = "SELECT e FROM Event e WHERE e.leadId IN :leadIds";
+        return entityManager.createQuery(query, Event.class)
+                .setParameter("leadIds", leadIds)
+                .getResultList();
+    }
+
 }
@@ -0,0 +1,123 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.entities.JobRun;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class JobRunRepo {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRunRepo.class);
+    private final EntityManager entityManager;
+
+    @Autowired
+    public JobRunRepo(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public Optional<JobRun> findByName(String name) {
+        return Optional.ofNullable(entityManager.find(JobRun.class, name));
+    }
+
+    /**
+     * Claims a run of the named cluster-wide job for one version of its inputs, so that when every
+     * instance notices the same change only the first one runs the job. The row is locked while
+     * comparing. A claim for the same version is refused while it is completed or younger than
+     * {@code staleAfter}; an older unfinished claim is taken over, since its owner likely died.
+     *
+     * @param name       The job name.
+     * @param version    A fingerprint of the inputs the job would run against.
+     * @param owner      Identifier of the claiming worker.
+     * @param staleAfter How long an unfinished claim blocks others.
+     * @return {@code true} if this caller should run the job and then call {@link #completeRun}.
+     */
+    @Transactional
+    public boolean claimRun(String name, long version, String owner, Duration staleAfter) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            JobRun run = entityManager.find(JobRun.class, name, LockModeType.PESSIMISTIC_WRITE);
+            if (run == null) {
+                run = new JobRun(name, version);
+                entityManager.persist(run);
+            } else if (run.getVersion() == version && (run.isCompleted()
+                    || run.getClaimedAt() != null && run.getClaimedAt().isAfter(now.minus(staleAfter)))) {
+                return false;
+            }
+            run.setVersion(version);
+            run.setClaimedBy(owner);
+            run.setClaimedAt(now);
+            run.setCompletedAt(null);
+
+            // Ensure immediate DB sync
+            entityManager.flush();
+
+            return true;
+        } catch (PersistenceException ex) {
+            logger.error("Job claim failed. Name: {} Version: {} --- Message: {}", name, version, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Marks a run claimed with {@link #claimRun} as completed, unless a run for another version has
+     * been claimed since.
+     *
+     * @param name    The job name.
+     * @param version The version the run was claimed for.
+     * @return {@code true} if the run was marked completed.
+     */
+    @Transactional
+    public boolean completeRun(String name, long version) {
+        try {
+            return entityManager.createQuery("UPDATE JobRun r SET r.completedAt = :now " +
+                            "WHERE r.name = :name AND r.version = :version")
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("name", name)
+                    .setParameter("version", version)
+                    .executeUpdate() == 1;
+        } catch (PersistenceException ex) {
+            logger.error("Job completion failed. Name: {} Version: {} --- Message: {}", name, version, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records that the named job finished a run over the given version of its inputs.
+     *
+     * @param name    The job name.
+     * @param version The version of the inputs the run covered.
+     * @return {@code true} if the completion was written.
+     */
+    @Transactional
+    public boolean markCompleted(String name, long version) {
+        try {
+            JobRun run = entityManager.find(JobRun.class, name, LockModeType.PESSIMISTIC_WRITE);
+            if (run == null) {
+                run = new JobRun(name, version);
+                entityManager.persist(run);
+            }
+            run.setVersion(version);
+            run.setCompletedAt(LocalDateTime.now());
+
+            // Ensure immediate DB sync
+            entityManager.flush();
+
+            return true;
+        } catch (PersistenceException ex) {
+            logger.error("Job completion failed. Name: {} Version: {} --- Message: {}", name, version, ex.getMessage());
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.OutboundMessage;
+import com.saleset.core.service.cache.LeadRoutingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes post-dispatch engagement state for many leads at once with JDBC batched UPDATEs,
+ * one transaction per chunk, instead of a merge + flush round trip per lead.
+ * <p>
+ * The outbound messages composed for those leads are inserted into the {@code outbound_messages}
+ * outbox in the same transaction, so a lead is only ever advanced together with its messages. Each
+ * UPDATE is guarded by the lead's {@code lease_owner}: a worker whose lease expired and was claimed by
+ * another worker writes nothing for that lead and queues none of its messages.
+ */
+@Repository
+public class LeadBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadBatchWriter.class);
+
+    private static final String UPDATE_ENGAGEMENT = "UPDATE leads SET next_follow_up = ?, previous_follow_up = ?, " +
+            "follow_up_count = ?, current_stage = ?, stage_updated_at = ?, " +
+            "lease_owner = NULL, lease_expires_at = NULL WHERE id = ? AND lease_owner = ?";
+
+    private static final String INSERT_OUTBOX = "INSERT INTO outbound_messages (lead_id, contact_id, channel, " +
+            "from_number, to_address, body, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SENDER = "UPDATE leads SET sender_number = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeadRoutingCache leadRoutingCache;
+
+    @Autowired
+    public LeadBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           LeadRoutingCache leadRoutingCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leadRoutingCache = leadRoutingCache;
+    }
+
+    /**
+     * Persists next/previous follow-up, follow-up count and stage for each lead, and releases its
+     * outreach lease, and queues the lead's outbound messages. Leads whose lease is no longer held by
+     * {@link Lead#getLeaseOwner()} are skipped along with their messages. A failed chunk is rolled back
+     * (messages included) and logged without affecting the other chunks.
+     *
+     * @param leads        Leads whose engagement fields were already updated in memory, as claimed.
+     * @param outboxByLead Outbound messages to queue, keyed by lead id.
+     * @param chunkSize    Number of leads per JDBC batch and transaction.
+     * @return The leads whose update was written and committed.
+     */
+    public List<Lead> writeFollowUpExecutions(List<Lead> leads, Map<Integer, List<OutboundMessage>> outboxByLead,
+                                              int chunkSize) {
+        List<Lead> written = new ArrayList<>(leads.size());
+
+        for (int from = 0; from < leads.size(); from += chunkSize) {
+            List<Lead> chunk = leads.subList(from, Math.min(from + chunkSize, leads.size()));
+            try {
+                List<Lead> owned = transactionTemplate.execute(status -> {
+                    int[][] counts = jdbcTemplate.batchUpdate(UPDATE_ENGAGEMENT, chunk, chunk.size(), (ps, lead) -> {
+                        ps.setTimestamp(1, toTimestamp(lead.getNextFollowUp()));
+                        ps.setTimestamp(2, toTimestamp(lead.getPreviousFollowUp()));
+                        ps.setInt(3, lead.getFollowUpCount());
+                        ps.setString(4, lead.getCurrentStage());
+                        ps.setTimestamp(5, toTimestamp(lead.getStageUpdatedAt()));
+                        ps.setInt(6, lead.getId());
+                        ps.setString(7, lead.getLeaseOwner());
+                    });
+                    List<Lead> stillLeased = stillLeased(chunk, counts[0]);
+
+                    List<OutboundMessage> outbox = stillLeased.stream()
+                            .flatMap(lead -> outboxByLead.getOrDefault(lead.getId(), List.of()).stream())
+                            .toList();
+                    if (!outbox.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_OUTBOX, outbox, outbox.size(), (ps, message) -> {
+                            ps.setInt(1, message.getLeadId());
+                            ps.setInt(2, message.getContactId());
+                            ps.setString(3, message.getChannel());
+                            ps.setString(4, message.getFromNumber());
+                            ps.setString(5, message.getToAddress());
+                            ps.setString(6, message.getBody());
+                            ps.setString(7, message.getStatus());
+                            ps.setInt(8, message.getAttempts());
+                            ps.setTimestamp(9, toTimestamp(message.getNextAttemptAt()));
+                            ps.setTimestamp(10, toTimestamp(message.getCreatedAt()));
+                        });
+                    }
+                    return stillLeased;
+                });
+                owned.forEach(leadRoutingCache::invalidateIfChanged);
+                written.addAll(owned);
+            } catch (DataAccessException ex) {
+                logger.error("Batch engagement update failed for {} leads starting at Lead[id={}] --- Message: {}",
+                        chunk.size(), chunk.get(0).getId(), ex.getMessage());
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Stores re-resolved sender numbers with batched UPDATEs, one transaction per chunk. A failed
+     * chunk is logged and skipped; its leads keep their previous sender.
+     *
+     * @param senderByLead New sender number, keyed by lead id.
+     * @param chunkSize    Number of leads per JDBC batch and transaction.
+     * @return The number of leads whose chunk committed.
+     */
+    public int writeSenderNumbers(Map<Integer, String> senderByLead, int chunkSize) {
+        List<Map.Entry<Integer, String>> entries = new ArrayList<>(senderByLead.entrySet());
+        int written = 0;
+
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            List<Map.Entry<Integer, String>> chunk = entries.subList(from, Math.min(from + chunkSize, entries.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(UPDATE_SENDER, chunk, chunk.size(), (ps, entry) -> {
+                            ps.setString(1, entry.getValue());
+                            ps.setInt(2, entry.getKey());
+                        }));
+                written += chunk.size();
+            } catch (DataAccessException ex) {
+                logger.error("Batch sender update failed for {} leads starting at Lead[id={}] --- Message: {}",
+                        chunk.size(), chunk.get(0).getKey(), ex.getMessage());
+            }
+        }
+
+        return written;
+    }
+
+    /*
+     * Keeps the leads whose guarded UPDATE matched a row. A count of zero means the lease expired and
+     * another worker claimed the lead; that worker now owns its follow-up.
+     */
+    private static List<Lead> stillLeased(List<Lead> chunk, int[] counts) {
+        List<Lead> stillLeased = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                stillLeased.add(chunk.get(i));
+            } else {
+                logger.warn("Lease on Lead[id={}] was lost before its follow-up was written; skipping it",
+                        chunk.get(i).getId());
+            }
+        }
+        return stillLeased;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+}
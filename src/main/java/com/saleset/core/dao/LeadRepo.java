@@ -1,7 +1,11 @@
 package com.saleset.core.dao;
 
+import com.saleset.core.dto.LeadRoute;
+import com.saleset.core.dto.LeadRoutingInputs;
+import com.saleset.core.dto.LeadScanCursor;
 import com.saleset.core.entities.Contact;
 import com.saleset.core.entities.Lead;
+import com.saleset.core.service.cache.LeadRoutingCache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceException;
@@ -12,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +25,12 @@ public class LeadRepo {
 
     private static final Logger logger = LoggerFactory.getLogger(LeadRepo.class);
     private final EntityManager entityManager;
+    private final LeadRoutingCache leadRoutingCache;
 
     @Autowired
-    public LeadRepo(EntityManager entityManager) {
+    public LeadRepo(EntityManager entityManager, LeadRoutingCache leadRoutingCache) {
         this.entityManager = entityManager;
+        this.leadRoutingCache = leadRoutingCache;
     }
 
     // Remove Transactional and use at service layer after testing.
@@ -41,6 +48,34 @@ public class LeadRepo {
         }
     }
 
+    /**
+     * Resolves the click-path fields of a lead by UUID, from {@link LeadRoutingCache} when possible and
+     * otherwise with a single projection query whose result is cached. Deliberately not transactional,
+     * so cache hits never take a database connection.
+     *
+     * @param uuid The lead UUID.
+     * @return The lead's route, or empty if no lead has that UUID.
+     */
+    public Optional<LeadRoute> findLeadRouteByUUID(String uuid) {
+        Optional<LeadRoute> cached = leadRoutingCache.find(uuid);
+        if (cached.isPresent()) return cached;
+
+        String query = "SELECT new com.saleset.core.dto.LeadRoute(l.id, l.bookingPageUrl, " +
+                "CASE WHEN l.addressId IS NOT NULL THEN true ELSE false END, l.currentStage) " +
+                "FROM Lead l WHERE l.uuid = :uuid";
+        List<LeadRoute> routes = entityManager.createQuery(query, LeadRoute.class)
+                .setParameter("uuid", uuid)
+                .setMaxResults(1)
+                .getResultList();
+
+        if (routes.isEmpty()) {
+            logger.warn("No Lead found with UUID: {}", uuid);
+            return Optional.empty();
+        }
+        leadRoutingCache.put(uuid, routes.get(0));
+        return Optional.of(routes.get(0));
+    }
+
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public Optional<Lead> safeInsert(Lead lead) {
@@ -50,6 +85,7 @@ public class LeadRepo {
             // Ensure immediate DB sync
             entityManager.flush();
 
+            leadRoutingCache.put(lead);
             return Optional.of(lead);
         } catch (PersistenceException ex) {
             logger.error("Insert failed. Lead: {} --- Message: {}", lead, ex.getMessage());
@@ -73,6 +109,18 @@ public class LeadRepo {
         }
     }
 
+    // Remove Transactional and use at service layer after testing.
+    @Transactional
+    public List<Lead> findLeadsByIds(Collection<Integer> leadIds) {
+        if (leadIds.isEmpty()) return List.of();
+
+        String query = "SELECT l FROM Lead l WHERE l.id IN :leadIds";
+        return entityManager.createQuery(query, Lead.class)
+                .setParameter("leadIds", leadIds)
+                .getResultList();
+    }
+
+
     // Remove Transactional and use at service layer after testing.
     @Transactional
     public List<Lead> findLeadByContact(Contact contact) {
@@ -92,6 +140,8 @@ public class LeadRepo {
             // Ensure immediate DB sync
             entityManager.flush();
 
+            leadRoutingCache.invalidateIfChanged(updateLead);
+
             return Optional.of(updateLead);
         } catch (PersistenceException ex) {
             logger.error("Update failed. Lead: {} --- Message: {}", lead, ex.getMessage());
@@ -99,19 +149,184 @@ public class LeadRepo {
         }
     }
 
-    // Remove Transactional and use at service layer after testing.
+    /**
+     * Atomically leases the next page of leads that are due for follow-up to a single outreach worker.
+     * <p>
+     * Pages are keyset-paginated on {@code (next_follow_up, id)}, so each call resumes exactly where the
+     * previous page ended instead of re-reading rows already handed out. Due rows are locked with
+     * {@code FOR UPDATE SKIP LOCKED}, so concurrent workers on other instances skip rows another worker
+     * is claiming instead of blocking on them. Leads whose lease has not yet expired are ignored, which
+     * means a crashed worker's leads return to the pool once the lease lapses.
+     *
+     * @param after          Keyset position to resume after; start at {@code (windowStart, 0)}.
+     * @param endTime        The end of the follow-up window (inclusive).
+     * @param excludedStages Stages that must never be claimed (e.g. DNC, Converted).
+     * @param leaseOwner     Identifier of the worker taking the lease.
+     * @param leaseExpiresAt When the lease lapses if the worker never releases it.
+     * @param pageSize       Maximum number of leads to claim.
+     * @return The claimed leads, ordered by next follow-up time then id.
+     */
+    @Transactional
+    public List<Lead> claimLeadsReadyForFollowUp(LeadScanCursor after, LocalDateTime endTime, List<String> excludedStages,
+                                                 String leaseOwner, LocalDateTime leaseExpiresAt, int pageSize) {
+        return claimPage("next_follow_up <= :upperBound", after, endTime, excludedStages,
+                leaseOwner, leaseExpiresAt, pageSize);
+    }
+
+    /**
+     * Leases the next chunk of overdue leads after the given keyset position, in
+     * {@code (next_follow_up, id)} order. Used to drain leads whose follow-up time slipped into the
+     * past during an overrun, restart or deploy, so they are never orphaned by the window scan.
+     *
+     * @param after          Keyset position to resume after.
+     * @param before         Leads due at or after this time belong to the regular window scan.
+     * @param excludedStages Stages that must never be claimed.
+     * @param leaseOwner     Identifier of the worker taking the lease.
+     * @param leaseExpiresAt When the lease lapses if the worker never releases it.
+     * @param chunkSize      Maximum number of leads to claim.
+     * @return The claimed leads, ordered by next follow-up time then id.
+     */
+    @Transactional
+    public List<Lead> claimOverdueLeads(LeadScanCursor after, LocalDateTime before, List<String> excludedStages,
+                                        String leaseOwner, LocalDateTime leaseExpiresAt, int chunkSize) {
+        return claimPage("next_follow_up < :upperBound", after, before, excludedStages,
+                leaseOwner, leaseExpiresAt, chunkSize);
+    }
+
+    /**
+     * Leases specific leads, typically ones fired by the in-memory timing wheel, if they are still
+     * due and not held by another worker. Leads that were rescheduled elsewhere, moved to an excluded
+     * stage, or are locked by a concurrent claim are silently skipped.
+     *
+     * @param leadIds        Candidate lead ids.
+     * @param now            Current time, used to test lease expiry.
+     * @param dueBy          Latest next follow-up time that still counts as due.
+     * @param excludedStages Stages that must never be claimed.
+     * @param leaseOwner     Identifier of the worker taking the lease.
+     * @param leaseExpiresAt When the lease lapses if the worker never releases it.
+     * @return The claimed leads, ordered by next follow-up time.
+     */
     @Transactional
-    public List<Lead> findLeadsReadyForFollowUp(LocalDateTime now, LocalDateTime endTime, List<String> excludedStages) {
-        String query = "SELECT l FROM Lead l WHERE l.nextFollowUp BETWEEN :now AND :endTime " +
-                "AND l.currentStage NOT IN :excludedStages";
+    public List<Lead> claimLeadsByIds(List<Integer> leadIds, LocalDateTime now, LocalDateTime dueBy,
+                                      List<String> excludedStages, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        if (leadIds.isEmpty()) return List.of();
 
-        return entityManager.createQuery(query, Lead.class)
+        String lockQuery = "SELECT id FROM leads WHERE id IN (:leadIds) AND next_follow_up <= :dueBy " +
+                "AND current_stage NOT IN (:excludedStages) " +
+                "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                "FOR UPDATE SKIP LOCKED";
+
+        @SuppressWarnings("unchecked")
+        List<Number> rawIds = entityManager.createNativeQuery(lockQuery)
+                .setParameter("leadIds", leadIds)
+                .setParameter("dueBy", dueBy)
+                .setParameter("excludedStages", excludedStages)
                 .setParameter("now", now)
-                .setParameter("endTime", endTime)
+                .getResultList();
+
+        return leaseAndLoad(rawIds, leaseOwner, leaseExpiresAt);
+    }
+
+    /**
+     * Returns one keyset page of the ids and next follow-up times of leads due up to the given time,
+     * without loading full entities. Used to load the follow-up schedule into the timing wheel page by page.
+     *
+     * @param after          Keyset position to resume after.
+     * @param until          Latest next follow-up time to include.
+     * @param excludedStages Stages to leave out.
+     * @param pageSize       Maximum number of rows to return.
+     * @return The page, ordered by next follow-up time then id; empty once the range is exhausted.
+     */
+    @Transactional
+    public List<LeadScanCursor> findFollowUpSchedulePage(LeadScanCursor after, LocalDateTime until,
+                                                         List<String> excludedStages, int pageSize) {
+        String query = "SELECT l.nextFollowUp, l.id FROM Lead l WHERE l.nextFollowUp <= :until " +
+                "AND (l.nextFollowUp > :afterFollowUp OR (l.nextFollowUp = :afterFollowUp AND l.id > :afterId)) " +
+                "AND l.currentStage NOT IN :excludedStages ORDER BY l.nextFollowUp, l.id";
+
+        return entityManager.createQuery(query, Object[].class)
+                .setParameter("until", until)
+                .setParameter("afterFollowUp", after.nextFollowUp())
+                .setParameter("afterId", after.leadId())
                 .setParameter("excludedStages", excludedStages)
+                .setMaxResults(pageSize)
+                .getResultStream()
+                .map(row -> new LeadScanCursor((LocalDateTime) row[0], (Integer) row[1]))
+                .toList();
+    }
+
+    /**
+     * Returns one id-ordered page of the zip, contact phone and current sender of each lead, without
+     * loading full entities. Used to re-resolve stored sender numbers in bulk.
+     *
+     * @param afterId        Lead id to resume after.
+     * @param onlyUnresolved Whether to include only leads that have no sender number yet.
+     * @param pageSize       Maximum number of rows to return.
+     * @return The page; empty once all leads have been read.
+     */
+    @Transactional
+    public List<LeadRoutingInputs> findLeadRoutingInputsPage(int afterId, boolean onlyUnresolved, int pageSize) {
+        String query = "SELECT new com.saleset.core.dto.LeadRoutingInputs(l.id, a.zipCode, c.primaryPhone, l.senderNumber) " +
+                "FROM Lead l JOIN Contact c ON c.id = l.contactId LEFT JOIN Address a ON a.id = l.addressId " +
+                "WHERE l.id > :afterId" + (onlyUnresolved ? " AND l.senderNumber IS NULL" : "") + " ORDER BY l.id";
+
+        return entityManager.createQuery(query, LeadRoutingInputs.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize)
                 .getResultList();
     }
 
+    /*
+     * Locks one keyset page of due leads under the given upper-bound clause, then leases and loads them.
+     */
+    private List<Lead> claimPage(String upperBoundClause, LeadScanCursor after, LocalDateTime upperBound,
+                                 List<String> excludedStages, String leaseOwner, LocalDateTime leaseExpiresAt,
+                                 int pageSize) {
+        String lockQuery = "SELECT id FROM leads WHERE " + upperBoundClause + " " +
+                "AND (next_follow_up > :afterFollowUp OR (next_follow_up = :afterFollowUp AND id > :afterId)) " +
+                "AND current_stage NOT IN (:excludedStages) " +
+                "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                "ORDER BY next_follow_up, id LIMIT :pageSize FOR UPDATE SKIP LOCKED";
+
+        @SuppressWarnings("unchecked")
+        List<Number> rawIds = entityManager.createNativeQuery(lockQuery)
+                .setParameter("upperBound", upperBound)
+                .setParameter("afterFollowUp", after.nextFollowUp())
+                .setParameter("afterId", after.leadId())
+                .setParameter("excludedStages", excludedStages)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("pageSize", pageSize)
+                .getResultList();
+
+        return leaseAndLoad(rawIds, leaseOwner, leaseExpiresAt);
+    }
+
+    /*
+     * Stamps the locked rows with the lease and loads them as entities. Must run inside the
+     * transaction that took the row locks.
+     */
+    private List<Lead> leaseAndLoad(List<Number> rawIds, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        if (rawIds.isEmpty()) return List.of();
+
+        List<Integer> leadIds = rawIds.stream().map(Number::intValue).toList();
+
+        entityManager.createNativeQuery("UPDATE leads SET lease_owner = :leaseOwner, " +
+                        "lease_expires_at = :leaseExpiresAt WHERE id IN (:leadIds)")
+                .setParameter("leaseOwner", leaseOwner)
+                .setParameter("leaseExpiresAt", leaseExpiresAt)
+                .setParameter("leadIds", leadIds)
+                .executeUpdate();
+
+        List<Lead> leads = entityManager.createQuery("SELECT l FROM Lead l WHERE l.id IN :leadIds " +
+                        "ORDER BY l.nextFollowUp, l.id", Lead.class)
+                .setParameter("leadIds", leadIds)
+                .getResultList();
+
+        // Detach the page so a long scan never accumulates managed entities in one persistence context.
+        entityManager.clear();
+        return leads;
+    }
+
     @Transactional
     public Optional<Lead> findLeadByExternalId(String zcrmExternalId) {
         String query = "SELECT l FROM Lead l WHERE l.zcrmExternalId = :zcrmExternalId";
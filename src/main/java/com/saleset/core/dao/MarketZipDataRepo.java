@@ -7,6 +7,7 @@ import jakarta.persistence.NoResultException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -32,4 +33,9 @@ public class MarketZipDataRepo {
         }
     }
 
+    public List<MarketZipData> findAll() {
+        return entityManager.createQuery("SELECT mzd FROM MarketZipData mzd", MarketZipData.class)
+                .getResultList();
+    }
+
 }
@@ -0,0 +1,55 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.entities.MessageDelivery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Appends Twilio delivery status updates to {@code message_deliveries} with JDBC batched INSERTs.
+ * Rows are keyed by {@code message_sid} only; see {@link MessageDelivery} for how they are linked to
+ * the outbox.
+ */
+@Repository
+public class MessageDeliveryRepo {
+
+    private static final String INSERT_DELIVERY = "INSERT INTO message_deliveries (message_sid, status, error_code, " +
+            "from_number, to_number, received_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public MessageDeliveryRepo(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inserts the updates as one JDBC batch in a single transaction.
+     *
+     * @param deliveries The status updates to store.
+     * @throws org.springframework.dao.DataAccessException if the batch fails; nothing is stored.
+     */
+    public void insertBatch(List<MessageDelivery> deliveries) {
+        if (deliveries.isEmpty()) return;
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_DELIVERY, deliveries, deliveries.size(), (ps, delivery) -> {
+                    ps.setString(1, delivery.getMessageSid());
+                    ps.setString(2, delivery.getStatus());
+                    if (delivery.getErrorCode() != null) ps.setInt(3, delivery.getErrorCode());
+                    else ps.setNull(3, Types.INTEGER);
+                    ps.setString(4, delivery.getFromNumber());
+                    ps.setString(5, delivery.getToNumber());
+                    ps.setTimestamp(6, Timestamp.valueOf(delivery.getReceivedAt()));
+                }));
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.entities.OutboundMessage;
+import com.saleset.core.enums.OutboundStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Access to the {@code outbound_messages} outbox. Rows are inserted by {@link LeadBatchWriter} in the
+ * same transaction as the engagement update that produced them, and drained here by the relay.
+ */
+@Repository
+public class OutboundMessageRepo {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundMessageRepo.class);
+
+    private static final String UPDATE_OUTCOME = "UPDATE outbound_messages SET status = ?, attempts = ?, " +
+            "next_attempt_at = ?, last_error = ?, provider_message_id = ?, sent_at = ? WHERE id = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OutboundMessageRepo(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks a batch of pending messages whose next attempt is due with {@code FOR UPDATE SKIP LOCKED}, and
+     * pushes their next attempt out to {@code leaseUntil} so no other relay picks them up while they are
+     * being sent. If the relay dies mid-send, the messages become due again once the lease passes.
+     *
+     * @param now        Current time.
+     * @param leaseUntil When the claimed messages become available to other relays again.
+     * @param batchSize  Maximum number of messages to claim.
+     * @return The claimed messages, oldest first.
+     */
+    @Transactional
+    public List<OutboundMessage> claimPendingMessages(LocalDateTime now, LocalDateTime leaseUntil, int batchSize) {
+        String lockQuery = "SELECT id FROM outbound_messages WHERE status = :status AND next_attempt_at <= :now " +
+                "ORDER BY next_attempt_at, id LIMIT :batchSize FOR UPDATE SKIP LOCKED";
+
+        @SuppressWarnings("unchecked")
+        List<Number> rawIds = entityManager.createNativeQuery(lockQuery)
+                .setParameter("status", OutboundStatus.PENDING.toString())
+                .setParameter("now", now)
+                .setParameter("batchSize", batchSize)
+                .getResultList();
+        if (rawIds.isEmpty()) return List.of();
+
+        List<Long> messageIds = rawIds.stream().map(Number::longValue).toList();
+
+        entityManager.createNativeQuery("UPDATE outbound_messages SET next_attempt_at = :leaseUntil " +
+                        "WHERE id IN (:messageIds)")
+                .setParameter("leaseUntil", leaseUntil)
+                .setParameter("messageIds", messageIds)
+                .executeUpdate();
+
+        List<OutboundMessage> messages = entityManager.createQuery("SELECT m FROM OutboundMessage m " +
+                        "WHERE m.id IN :messageIds ORDER BY m.nextAttemptAt, m.id", OutboundMessage.class)
+                .setParameter("messageIds", messageIds)
+                .getResultList();
+
+        entityManager.clear();
+        return messages;
+    }
+
+    /**
+     * Writes the outcome of a single message (sent, rescheduled for retry, failed or cancelled) as soon
+     * as it is known, so a crash later in the batch can't leave an already-sent message PENDING.
+     *
+     * @param message Message whose status fields were updated in memory by the relay.
+     * @return {@code true} if the outcome was written.
+     */
+    public boolean saveOutcome(OutboundMessage message) {
+        try {
+            return jdbcTemplate.update(UPDATE_OUTCOME,
+                    message.getStatus(),
+                    message.getAttempts(),
+                    toTimestamp(message.getNextAttemptAt()),
+                    message.getLastError(),
+                    message.getProviderMessageId(),
+                    toTimestamp(message.getSentAt()),
+                    message.getId()) == 1;
+        } catch (DataAccessException ex) {
+            logger.error("Failed to record relay outcome for outbound message {} --- Message: {}",
+                    message.getId(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+}
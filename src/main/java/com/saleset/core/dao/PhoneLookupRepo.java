@@ -0,0 +1,55 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.entities.PhoneLookup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public class PhoneLookupRepo {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhoneLookupRepo.class);
+    private final EntityManager entityManager;
+
+    @Autowired
+    public PhoneLookupRepo(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public Optional<PhoneLookup> findByPhone(String phoneE164) {
+        return Optional.ofNullable(entityManager.find(PhoneLookup.class, phoneE164));
+    }
+
+    /**
+     * Inserts or refreshes the stored lookup result for a number in a single
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE}, so two instances storing the same number at once
+     * both succeed instead of one failing on the primary key.
+     *
+     * @param phoneLookup The lookup result keyed by E.164 number.
+     * @return The stored lookup, or empty if the write failed.
+     */
+    @Transactional
+    public Optional<PhoneLookup> safeUpsert(PhoneLookup phoneLookup) {
+        try {
+            entityManager.createNativeQuery("INSERT INTO phone_lookups (phone_e164, line_type, looked_up_at) " +
+                            "VALUES (:phone, :lineType, :lookedUpAt) " +
+                            "ON DUPLICATE KEY UPDATE line_type = VALUES(line_type), looked_up_at = VALUES(looked_up_at)")
+                    .setParameter("phone", phoneLookup.getPhoneE164())
+                    .setParameter("lineType", phoneLookup.getLineType())
+                    .setParameter("lookedUpAt", phoneLookup.getLookedUpAt())
+                    .executeUpdate();
+            return Optional.of(phoneLookup);
+        } catch (PersistenceException ex) {
+            logger.error("Upsert failed. PhoneLookup: {} --- Message: {}", phoneLookup, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+}
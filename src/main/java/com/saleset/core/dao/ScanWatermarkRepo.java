@@ -0,0 +1,61 @@
+package com.saleset.core.dao;
+
+import com.saleset.core.dto.LeadScanCursor;
+import com.saleset.core.entities.ScanWatermark;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public class ScanWatermarkRepo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanWatermarkRepo.class);
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ScanWatermarkRepo(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public Optional<ScanWatermark> findByName(String name) {
+        return Optional.ofNullable(entityManager.find(ScanWatermark.class, name));
+    }
+
+    /**
+     * Moves the named watermark forward to the given cursor. The row is locked while comparing,
+     * so concurrent instances can only ever advance it, never move it back.
+     *
+     * @param name   The watermark name.
+     * @param cursor The new keyset position.
+     * @return The watermark as stored after the call, or empty if the write failed.
+     */
+    @Transactional
+    public Optional<ScanWatermark> advance(String name, LeadScanCursor cursor) {
+        try {
+            ScanWatermark watermark = entityManager.find(ScanWatermark.class, name, LockModeType.PESSIMISTIC_WRITE);
+            if (watermark == null) {
+                watermark = new ScanWatermark(name, cursor);
+                entityManager.persist(watermark);
+            } else if (cursor.isAfter(watermark.toCursor())) {
+                watermark.moveTo(cursor);
+            }
+
+            // Ensure immediate DB sync
+            entityManager.flush();
+
+            return Optional.of(watermark);
+        } catch (PersistenceException ex) {
+            logger.error("Watermark advance failed. Name: {} Cursor: {} --- Message: {}", name, cursor, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.saleset.core.dto;
+
+/**
+ * The phone numbers stored on a contact, as loaded by a projection query.
+ */
+public record ContactPhoneNumbers(int contactId, String primaryPhone, String secondaryPhone) {}
@@ -0,0 +1,5 @@
+package com.saleset.core.dto;
+
+// memoryBytes is -1 when the backend can't measure it; expectedFpp is 0 for exact backends.
+public record EventDedupStats(String backend, long trackedEntries, long memoryBytes, double expectedFpp,
+                              long accepted, long rejected) {}
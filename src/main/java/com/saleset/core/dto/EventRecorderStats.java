@@ -0,0 +1,3 @@
+package com.saleset.core.dto;
+
+public record EventRecorderStats(int queued, long dropped) {}
@@ -0,0 +1,15 @@
+package com.saleset.core.dto;
+
+import com.saleset.core.entities.Lead;
+
+/**
+ * The few lead fields the click-tracking path needs, cached by lead UUID in
+ * {@link com.saleset.core.service.cache.LeadRoutingCache}.
+ */
+public record LeadRoute(int leadId, String bookingPageUrl, boolean hasAddress, String currentStage) {
+
+    public static LeadRoute of(Lead lead) {
+        return new LeadRoute(lead.getId(), lead.getBookingPageUrl(), lead.getAddressId() != null, lead.getCurrentStage());
+    }
+
+}
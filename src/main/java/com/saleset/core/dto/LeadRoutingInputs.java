@@ -0,0 +1,7 @@
+package com.saleset.core.dto;
+
+/**
+ * The fields sender routing depends on for one lead, as loaded by a projection query.
+ * {@code zipCode} is null for leads without an address.
+ */
+public record LeadRoutingInputs(int leadId, String zipCode, String primaryPhone, String senderNumber) {}
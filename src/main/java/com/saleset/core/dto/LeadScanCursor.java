@@ -0,0 +1,19 @@
+package com.saleset.core.dto;
+
+import com.saleset.core.entities.Lead;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in a lead scan ordered by {@code (next_follow_up, id)}.
+ */
+public record LeadScanCursor(LocalDateTime nextFollowUp, int leadId) {
+
+    public static LeadScanCursor of(Lead lead) { return new LeadScanCursor(lead.getNextFollowUp(), lead.getId()); }
+
+    public boolean isAfter(LeadScanCursor other) {
+        int cmp = nextFollowUp.compareTo(other.nextFollowUp);
+        return cmp > 0 || (cmp == 0 && leadId > other.leadId);
+    }
+
+}
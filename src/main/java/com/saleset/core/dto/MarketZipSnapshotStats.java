@@ -0,0 +1,5 @@
+package com.saleset.core.dto;
+
+import java.time.LocalDateTime;
+
+public record MarketZipSnapshotStats(int zipCount, int distinctEntries, long memoryBytes, LocalDateTime loadedAt) {}
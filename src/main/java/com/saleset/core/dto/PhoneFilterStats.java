@@ -0,0 +1,5 @@
+package com.saleset.core.dto;
+
+public record PhoneFilterStats(boolean ready, long approximatePhones, long bitSize, int hashFunctions,
+                               long memoryBytes, double expectedFpp, long lookupsSkipped, long lookupsPerformed,
+                               long falseNegatives, int lastContactId) {}
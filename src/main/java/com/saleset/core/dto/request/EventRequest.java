@@ -1,7 +1,10 @@
 package com.saleset.core.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.time.LocalDateTime;
+
 public class EventRequest {
 
     @JsonProperty("event")
@@ -10,6 +13,10 @@ public class EventRequest {
     @JsonProperty("lead_uuid")
     private String leadUUID;
 
+    // When the event actually happened, for events recorded after the fact; null means now
+    @JsonIgnore
+    private LocalDateTime occurredAt;
+
     public String getEvent() {
         return event;
     }
@@ -26,6 +33,14 @@ public class EventRequest {
         this.leadUUID = leadUUID;
     }
 
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
     @Override
     public String toString() {
         return "EventRequest{" +
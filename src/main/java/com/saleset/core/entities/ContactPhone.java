@@ -0,0 +1,47 @@
+package com.saleset.core.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One row per E.164 phone number known for a contact, primary or secondary. The primary key on
+ * {@code phone_e164} makes phone-to-contact resolution a single index lookup.
+ */
+@Entity
+@Table(name = "contact_phones")
+public class ContactPhone {
+
+    @Id
+    @Column(name = "phone_e164")
+    private String phoneE164;
+
+    // FOREIGN KEY
+    @Column(name = "contact_id")
+    private int contactId;
+
+    public ContactPhone() {}
+
+    public ContactPhone(String phoneE164, int contactId) {
+        setPhoneE164(phoneE164);
+        setContactId(contactId);
+    }
+
+    public String getPhoneE164() { return phoneE164; }
+
+    public void setPhoneE164(String phoneE164) { this.phoneE164 = phoneE164; }
+
+    public int getContactId() { return contactId; }
+
+    public void setContactId(int contactId) { this.contactId = contactId; }
+
+    @Override
+    public String toString() {
+        return "ContactPhone{" +
+                "phoneE164='" + phoneE164 + '\'' +
+                ", contactId=" + contactId +
+                '}';
+    }
+
+}
@@ -6,9 +6,7 @@ import com.saleset.core.enums.EventType;
 import com.saleset.core.util.TimePeriodIdentifier;
 import jakarta.persistence.*;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
 @Entity
 @Table(name = "events")
@@ -38,9 +36,17 @@ public class Event {
     @Column(name = "source")
     private String source;
 
+    // Time bucket of createdAt; part of the unique key that rejects duplicates across nodes.
+    @Column(name = "dedup_bucket")
+    private Long dedupBucket;
+
     public Event() {}
 
     public Event(Lead lead, EventRequest eventData, EventSource source) {
+        this(lead.getId(), eventData, source);
+    }
+
+    public Event(int leadId, EventRequest eventData, EventSource source) {
 
         if (eventData.getEvent().equalsIgnoreCase(EventType.OPEN.toString())) {
             setEventType(EventType.OPEN.toString());
@@ -48,10 +54,12 @@ public class Event {
             setEventType(EventType.CLICK.toString());
         }
 
-        setLeadId(lead.getId());
-        setCreatedAt(LocalDateTime.now());
-        setDayOfWeek(LocalDate.now().getDayOfWeek().toString());
-        setPeriodOfDay(TimePeriodIdentifier.identifyPeriodOfDay(LocalTime.now()).toString());
+        LocalDateTime occurredAt = eventData.getOccurredAt() != null ? eventData.getOccurredAt() : LocalDateTime.now();
+
+        setLeadId(leadId);
+        setCreatedAt(occurredAt);
+        setDayOfWeek(occurredAt.getDayOfWeek().toString());
+        setPeriodOfDay(TimePeriodIdentifier.identifyPeriodOfDay(occurredAt.toLocalTime()).toString());
         setSource(source.toString());
 
     }
@@ -108,6 +116,10 @@ public class Event {
 
     public void setSource(String source) { this.source = source; }
 
+    public Long getDedupBucket() { return dedupBucket; }
+
+    public void setDedupBucket(Long dedupBucket) { this.dedupBucket = dedupBucket; }
+
     @Override
     public String toString() {
         return "Event{" +
@@ -118,6 +130,7 @@ public class Event {
                 ", dayOfWeek='" + dayOfWeek + '\'' +
                 ", periodOfDay='" + periodOfDay + '\'' +
                 ", source='" + source + '\'' +
+                ", dedupBucket=" + dedupBucket +
                 '}';
     }
 
@@ -0,0 +1,77 @@
+package com.saleset.core.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a named cluster-wide job, one row per job. {@code version} identifies the inputs of the
+ * latest claimed run (what "version" means is up to the job); {@code completedAt} is set once that
+ * run has finished and cleared when a new run is claimed.
+ */
+@Entity
+@Table(name = "job_runs")
+public class JobRun {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "version")
+    private long version;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public JobRun() {}
+
+    public JobRun(String name, long version) {
+        setName(name);
+        setVersion(version);
+    }
+
+    public boolean isCompleted() { return completedAt != null; }
+
+    public boolean isCompletedFor(long version) { return isCompleted() && this.version == version; }
+
+    public String getName() { return name; }
+
+    public void setName(String name) { this.name = name; }
+
+    public long getVersion() { return version; }
+
+    public void setVersion(long version) { this.version = version; }
+
+    public String getClaimedBy() { return claimedBy; }
+
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    @Override
+    public String toString() {
+        return "JobRun{" +
+                "name='" + name + '\'' +
+                ", version=" + version +
+                ", claimedBy='" + claimedBy + '\'' +
+                ", claimedAt=" + claimedAt +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+
+}
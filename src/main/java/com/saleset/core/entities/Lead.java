@@ -65,6 +65,17 @@ public class Lead {
     @Column(name = "zcrm_auto_number")
     private String zcrmAutoNumber;
 
+    // Resolved from the routing table at intake, and re-resolved in bulk when the table changes
+    @Column(name = "sender_number")
+    private String senderNumber;
+
+    // Outreach worker currently holding this lead, cleared once the follow-up is recorded
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     public Lead() {}
 
     public int getId() {
@@ -220,6 +231,23 @@ public class Lead {
 
     public void setTrackingWebhookUrl(String trackingWebhookUrl) { this.trackingWebhookUrl = trackingWebhookUrl; }
 
+    public String getSenderNumber() { return senderNumber; }
+
+    public void setSenderNumber(String senderNumber) { this.senderNumber = senderNumber; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public void releaseLease() {
+        setLeaseOwner(null);
+        setLeaseExpiresAt(null);
+    }
+
     @Override
     public String toString() {
         return "Lead{" +
@@ -240,6 +268,9 @@ public class Lead {
                 ", subSource='" + subSource + '\'' +
                 ", zcrmExternalId='" + zcrmExternalId + '\'' +
                 ", zcrmAutoNumber='" + zcrmAutoNumber + '\'' +
+                ", senderNumber='" + senderNumber + '\'' +
+                ", leaseOwner='" + leaseOwner + '\'' +
+                ", leaseExpiresAt=" + leaseExpiresAt +
                 '}';
     }
 
@@ -21,6 +21,12 @@ public class MarketZipData {
 
     public MarketZipData() {}
 
+    public MarketZipData(String zipCode, String county, String appointmentType) {
+        this.zipCode = zipCode;
+        this.county = county;
+        this.appointmentType = appointmentType;
+    }
+
     public String getZipCode() { return zipCode; }
     public String getCounty() { return county; }
     public String getAppointmentType() { return appointmentType; }
@@ -0,0 +1,94 @@
+package com.saleset.core.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One delivery status update posted by Twilio for a sent SMS. Rows are append-only: a message moves
+ * through several statuses (queued, sent, delivered / undelivered / failed) and each is kept.
+ * <p>
+ * Updates are linked to their outbox message at read time, by joining {@code message_sid} to
+ * {@code outbound_messages.provider_message_id}; early callbacks often arrive before the relay has
+ * stored the provider id, so the link can't be fixed at insert time.
+ */
+@Entity
+@Table(name = "message_deliveries")
+public class MessageDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private long id;
+
+    @Column(name = "message_sid")
+    private String messageSid;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "error_code")
+    private Integer errorCode;
+
+    @Column(name = "from_number")
+    private String fromNumber;
+
+    @Column(name = "to_number")
+    private String toNumber;
+
+    @Column(name = "received_at")
+    private LocalDateTime receivedAt;
+
+    public MessageDelivery() {}
+
+    public MessageDelivery(String messageSid, String status, Integer errorCode, String fromNumber, String toNumber) {
+        setMessageSid(messageSid);
+        setStatus(status);
+        setErrorCode(errorCode);
+        setFromNumber(fromNumber);
+        setToNumber(toNumber);
+        setReceivedAt(LocalDateTime.now());
+    }
+
+    public long getId() { return id; }
+
+    public void setId(long id) { this.id = id; }
+
+    public String getMessageSid() { return messageSid; }
+
+    public void setMessageSid(String messageSid) { this.messageSid = messageSid; }
+
+    public String getStatus() { return status; }
+
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getErrorCode() { return errorCode; }
+
+    public void setErrorCode(Integer errorCode) { this.errorCode = errorCode; }
+
+    public String getFromNumber() { return fromNumber; }
+
+    public void setFromNumber(String fromNumber) { this.fromNumber = fromNumber; }
+
+    public String getToNumber() { return toNumber; }
+
+    public void setToNumber(String toNumber) { this.toNumber = toNumber; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+
+    @Override
+    public String toString() {
+        return "MessageDelivery{" +
+                "id=" + id +
+                ", messageSid='" + messageSid + '\'' +
+                ", status='" + status + '\'' +
+                ", errorCode=" + errorCode +
+                ", fromNumber='" + fromNumber + '\'' +
+                ", toNumber='" + toNumber + '\'' +
+                ", receivedAt=" + receivedAt +
+                '}';
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.saleset.core.entities;
+
+import com.saleset.core.enums.OutboundChannel;
+import com.saleset.core.enums.OutboundStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbound_messages")
+public class OutboundMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private long id;
+
+    // FOREIGN KEY
+    @Column(name = "lead_id")
+    private int leadId;
+
+    // FOREIGN KEY
+    @Column(name = "contact_id")
+    private int contactId;
+
+    @Column(name = "channel")
+    private String channel;
+
+    @Column(name = "from_number")
+    private String fromNumber;
+
+    @Column(name = "to_address")
+    private String toAddress;
+
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "provider_message_id")
+    private String providerMessageId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public OutboundMessage() {}
+
+    public OutboundMessage(Lead lead, OutboundChannel channel, String fromNumber, String toAddress, String body) {
+        setLeadId(lead.getId());
+        setContactId(lead.getContactId());
+        setChannel(channel.toString());
+        setFromNumber(fromNumber);
+        setToAddress(toAddress);
+        setBody(body);
+        setStatus(OutboundStatus.PENDING.toString());
+        setAttempts(0);
+        setCreatedAt(LocalDateTime.now());
+        setNextAttemptAt(getCreatedAt());
+    }
+
+    public long getId() { return id; }
+
+    public void setId(long id) { this.id = id; }
+
+    public int getLeadId() { return leadId; }
+
+    public void setLeadId(int leadId) { this.leadId = leadId; }
+
+    public int getContactId() { return contactId; }
+
+    public void setContactId(int contactId) { this.contactId = contactId; }
+
+    public String getChannel() { return channel; }
+
+    public void setChannel(String channel) { this.channel = channel; }
+
+    public String getFromNumber() { return fromNumber; }
+
+    public void setFromNumber(String fromNumber) { this.fromNumber = fromNumber; }
+
+    public String getToAddress() { return toAddress; }
+
+    public void setToAddress(String toAddress) { this.toAddress = toAddress; }
+
+    public String getBody() { return body; }
+
+    public void setBody(String body) { this.body = body; }
+
+    public String getStatus() { return status; }
+
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getProviderMessageId() { return providerMessageId; }
+
+    public void setProviderMessageId(String providerMessageId) { this.providerMessageId = providerMessageId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+
+    @Override
+    public String toString() {
+        return "OutboundMessage{" +
+                "id=" + id +
+                ", leadId=" + leadId +
+                ", contactId=" + contactId +
+                ", channel='" + channel + '\'' +
+                ", fromNumber='" + fromNumber + '\'' +
+                ", toAddress='" + toAddress + '\'' +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                ", lastError='" + lastError + '\'' +
+                ", providerMessageId='" + providerMessageId + '\'' +
+                ", createdAt=" + createdAt +
+                ", sentAt=" + sentAt +
+                '}';
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.saleset.core.entities;
+
+import com.saleset.core.enums.PhoneLineType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "phone_lookups")
+public class PhoneLookup {
+
+    @Id
+    @Column(name = "phone_e164")
+    private String phoneE164;
+
+    @Column(name = "line_type")
+    private String lineType;
+
+    @Column(name = "looked_up_at")
+    private LocalDateTime lookedUpAt;
+
+    public PhoneLookup() {}
+
+    public PhoneLookup(String phoneE164, PhoneLineType lineType) {
+        setPhoneE164(phoneE164);
+        setLineType(lineType.name());
+        setLookedUpAt(LocalDateTime.now());
+    }
+
+    public boolean isFresh(Duration ttl) { return lookedUpAt != null && lookedUpAt.plus(ttl).isAfter(LocalDateTime.now()); }
+
+    public PhoneLineType toLineType() { return PhoneLineType.valueOf(lineType); }
+
+    public String getPhoneE164() { return phoneE164; }
+
+    public void setPhoneE164(String phoneE164) { this.phoneE164 = phoneE164; }
+
+    public String getLineType() { return lineType; }
+
+    public void setLineType(String lineType) { this.lineType = lineType; }
+
+    public LocalDateTime getLookedUpAt() { return lookedUpAt; }
+
+    public void setLookedUpAt(LocalDateTime lookedUpAt) { this.lookedUpAt = lookedUpAt; }
+
+    @Override
+    public String toString() {
+        return "PhoneLookup{" +
+                "phoneE164='" + phoneE164 + '\'' +
+                ", lineType='" + lineType + '\'' +
+                ", lookedUpAt=" + lookedUpAt +
+                '}';
+    }
+
+}
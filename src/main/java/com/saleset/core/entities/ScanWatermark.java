@@ -0,0 +1,69 @@
+package com.saleset.core.entities;
+
+import com.saleset.core.dto.LeadScanCursor;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scan_watermarks")
+public class ScanWatermark {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "last_follow_up")
+    private LocalDateTime lastFollowUp;
+
+    @Column(name = "last_lead_id")
+    private int lastLeadId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ScanWatermark() {}
+
+    public ScanWatermark(String name, LeadScanCursor cursor) {
+        setName(name);
+        moveTo(cursor);
+    }
+
+    public void moveTo(LeadScanCursor cursor) {
+        setLastFollowUp(cursor.nextFollowUp());
+        setLastLeadId(cursor.leadId());
+        setUpdatedAt(LocalDateTime.now());
+    }
+
+    public LeadScanCursor toCursor() { return new LeadScanCursor(lastFollowUp, lastLeadId); }
+
+    public String getName() { return name; }
+
+    public void setName(String name) { this.name = name; }
+
+    public LocalDateTime getLastFollowUp() { return lastFollowUp; }
+
+    public void setLastFollowUp(LocalDateTime lastFollowUp) { this.lastFollowUp = lastFollowUp; }
+
+    public int getLastLeadId() { return lastLeadId; }
+
+    public void setLastLeadId(int lastLeadId) { this.lastLeadId = lastLeadId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public String toString() {
+        return "ScanWatermark{" +
+                "name='" + name + '\'' +
+                ", lastFollowUp=" + lastFollowUp +
+                ", lastLeadId=" + lastLeadId +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+
+}
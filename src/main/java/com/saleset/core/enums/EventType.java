@@ -11,6 +11,11 @@ public enum EventType {
         this.eventType = eventType;
     }
 
+    public static EventType fromString(String eventType) {
+        for (EventType value : EventType.values()) if (value.eventType.equalsIgnoreCase(eventType)) return value;
+        throw new IllegalArgumentException("Unknown event type: " + eventType);
+    }
+
     @Override
     public String toString() { return eventType; }
 
@@ -0,0 +1,22 @@
+package com.saleset.core.enums;
+
+public enum OutboundChannel {
+
+    SMS("Sms"),
+    EMAIL("Email");
+
+    private final String channel;
+
+    OutboundChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public static OutboundChannel fromString(String channel) {
+        for (OutboundChannel value : OutboundChannel.values()) if (value.channel.equalsIgnoreCase(channel)) return value;
+        throw new IllegalArgumentException("Unknown outbound channel: " + channel);
+    }
+
+    @Override
+    public String toString() { return channel; }
+
+}
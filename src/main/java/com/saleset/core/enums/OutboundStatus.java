@@ -0,0 +1,19 @@
+package com.saleset.core.enums;
+
+public enum OutboundStatus {
+
+    PENDING("Pending"),
+    SENT("Sent"),
+    FAILED("Failed"),
+    CANCELLED("Cancelled");
+
+    private final String status;
+
+    OutboundStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() { return status; }
+
+}
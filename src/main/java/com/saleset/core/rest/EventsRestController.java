@@ -1,12 +1,17 @@
 package com.saleset.core.rest;
 
-import com.saleset.core.dao.LeadRepo;
 import com.saleset.core.dto.request.EventRequest;
 import com.saleset.core.entities.Event;
+import com.saleset.core.entities.MessageDelivery;
 import com.saleset.core.enums.EventSource;
 import com.saleset.core.service.persistence.leads.LeadEngagementManager;
+import com.saleset.core.service.persistence.DeferredEventRecorder;
 import com.saleset.core.service.persistence.EventTransactionManager;
 import com.saleset.core.util.QueryUrlGenerator;
+import com.saleset.integration.twilio.service.DeliveryStatusBuffer;
+import com.saleset.integration.twilio.service.TwilioManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -14,12 +19,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("v2/api")
 public class EventsRestController {
 
+    private final Logger logger = LoggerFactory.getLogger(EventsRestController.class);
+
     @Autowired
     private EventTransactionManager eventTransactionManager;
 
@@ -30,7 +38,13 @@ public class EventsRestController {
     private LeadEngagementManager leadEngagementManager;
 
     @Autowired
-    private LeadRepo leadRepo;
+    private DeferredEventRecorder deferredEventRecorder;
+
+    @Autowired
+    private TwilioManager twilioManager;
+
+    @Autowired
+    private DeliveryStatusBuffer deliveryStatusBuffer;
 
     /*
     @PostMapping("/email_event")
@@ -41,23 +55,16 @@ public class EventsRestController {
     }
     */
 
-    // Anonymous endpoint name for click tracking - to be masked in booking link
+    // Anonymous endpoint name for click tracking - to be masked in booking link.
+    // Redirects right away; the click is recorded and the lead's engagement updated in the background.
     @GetMapping("/go")
     public ResponseEntity<Void> smsEvent(@RequestParam("UUID") String leadUUID) {
+        String bookingUrl = leadEngagementManager.getBookingPageUrl(leadUUID);
+
         EventRequest eventData = new EventRequest();
         eventData.setEvent("click");
         eventData.setLeadUUID(leadUUID);
-        System.out.println(eventData);
-
-        String bookingUrl = leadEngagementManager.getBookingPageUrl(leadUUID);
-        System.out.println(bookingUrl);
-
-        Optional<Event> optEvent = eventTransactionManager.insertEventHandler(eventData, EventSource.SMS);
-        optEvent.flatMap(event -> leadRepo.findLeadById(event.getLeadId())).ifPresent(lead -> {
-            if (lead.getAddressId() != null) {
-                leadEngagementManager.updateEngagementOnLeadEvent(lead);
-            }
-        });
+        deferredEventRecorder.submit(eventData, EventSource.SMS);
 
         // Return HTTP 302 redirect to the booking URL
         return ResponseEntity.status(HttpStatus.FOUND)
@@ -66,4 +73,37 @@ public class EventsRestController {
     }
 
 
+    // Twilio SMS status callback (twilio.sms.statusCallbackUrl); only buffers the update, see DeliveryStatusBuffer
+    @PostMapping(value = "/sms_status", consumes = "application/x-www-form-urlencoded")
+    public ResponseEntity<Void> smsStatus(@RequestParam Map<String, String> params,
+                                          @RequestHeader(value = "X-Twilio-Signature", required = false) String signature) {
+        if (!twilioManager.isAuthenticStatusCallback(params, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String messageSid = params.get("MessageSid");
+        String status = params.get("MessageStatus");
+        if (messageSid == null || status == null) return ResponseEntity.badRequest().build();
+
+        MessageDelivery delivery = new MessageDelivery(messageSid, status, parseErrorCode(params.get("ErrorCode")),
+                params.get("From"), params.get("To"));
+
+        // 503 makes Twilio retry the callback later instead of losing it while the buffer is full
+        return deliveryStatusBuffer.offer(delivery)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    // A malformed ErrorCode is dropped rather than failing the callback, which Twilio would keep retrying.
+    private Integer parseErrorCode(String errorCode) {
+        if (errorCode == null || errorCode.isBlank()) return null;
+        try {
+            return Integer.valueOf(errorCode.trim());
+        } catch (NumberFormatException ex) {
+            logger.warn("Ignoring non-numeric Twilio ErrorCode: {}", errorCode);
+            return null;
+        }
+    }
+
+
 }
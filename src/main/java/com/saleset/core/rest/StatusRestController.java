@@ -1,14 +1,100 @@
 package com.saleset.core.rest;
 
+import com.saleset.core.dto.EventDedupStats;
+import com.saleset.core.dto.EventRecorderStats;
+import com.saleset.core.dto.MarketZipSnapshotStats;
+import com.saleset.core.service.cache.EventDeduplicator;
+import com.saleset.core.service.cache.KnownPhoneFilter;
+import com.saleset.core.service.cache.MarketZipSnapshot;
+import com.saleset.core.service.cache.PhoneLookupCacheManager;
+import com.saleset.core.service.persistence.DeferredEventRecorder;
+import com.saleset.core.dto.PhoneFilterStats;
+import com.saleset.integration.twilio.dto.DeliveryStatusStats;
+import com.saleset.integration.twilio.dto.PhoneLookupCacheStats;
+import com.saleset.integration.twilio.dto.SenderQueueStats;
+import com.saleset.integration.twilio.service.DeliveryStatusBuffer;
+import com.saleset.integration.twilio.service.SmsSendQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
 @RestController
 @RequestMapping("v2/api")
 public class StatusRestController {
 
+    @Autowired
+    private SmsSendQueue smsSendQueue;
+
+    @Autowired
+    private PhoneLookupCacheManager phoneLookupCacheManager;
+
+    @Autowired
+    private KnownPhoneFilter knownPhoneFilter;
+
+    @Autowired
+    private MarketZipSnapshot marketZipSnapshot;
+
+    @Autowired
+    private DeliveryStatusBuffer deliveryStatusBuffer;
+
+    @Autowired
+    private DeferredEventRecorder deferredEventRecorder;
+
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+
+    @Value("${status.admin.token:}")
+    private String adminToken;
+
     @GetMapping("/status")
     public String getStatus() { return "Saleset is up and is running."; }
 
+    @GetMapping("/status/sms_queue")
+    public List<SenderQueueStats> getSmsQueueStats() { return smsSendQueue.getStats(); }
+
+    @GetMapping("/status/sms_deliveries")
+    public DeliveryStatusStats getSmsDeliveryStats() { return deliveryStatusBuffer.getStats(); }
+
+    @GetMapping("/status/event_recorder")
+    public EventRecorderStats getEventRecorderStats() { return deferredEventRecorder.getStats(); }
+
+    @GetMapping("/status/event_dedup")
+    public EventDedupStats getEventDedupStats() { return eventDeduplicator.getStats(); }
+
+    @GetMapping("/status/phone_lookup_cache")
+    public PhoneLookupCacheStats getPhoneLookupCacheStats() { return phoneLookupCacheManager.getStats(); }
+
+    @GetMapping("/status/known_phone_filter")
+    public PhoneFilterStats getKnownPhoneFilterStats() { return knownPhoneFilter.getStats(); }
+
+    @GetMapping("/status/market_zips")
+    public MarketZipSnapshotStats getMarketZipStats() { return marketZipSnapshot.getStats(); }
+
+    // Reloads the snapshot on every request, so it is refused unless X-Admin-Token matches status.admin.token
+    @PostMapping("/status/market_zips/refresh")
+    public ResponseEntity<MarketZipSnapshotStats> refreshMarketZips(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAdmin(token)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        marketZipSnapshot.refresh();
+        return ResponseEntity.ok(marketZipSnapshot.getStats());
+    }
+
+
+    // Constant-time comparison; with no token configured, admin operations are turned off
+    private boolean isAdmin(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) return false;
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -1,24 +1,34 @@
 package com.saleset.core.service.cache;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.saleset.core.dto.EventDedupStats;
 import com.saleset.core.dto.request.EventRequest;
+import com.saleset.core.enums.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Exact {@link EventDeduplicator} backed by the Caffeine {@code eventCache}: remembers up to 5,000
+ * leads for 3 hours. Selected by {@code events.dedup.backend=caffeine} (the default).
+ */
 @Service
-public class EventCacheManager {
+@ConditionalOnProperty(name = "events.dedup.backend", havingValue = "caffeine", matchIfMissing = true)
+public class EventCacheManager implements EventDeduplicator {
 
     private final Logger logger = LoggerFactory.getLogger(EventCacheManager.class);
 
-    private final Cache<String, Set<String>> eventCache;
+    // One bit per EventType (by ordinal) for the event types already seen for a lead UUID
+    private final Cache<String, Integer> eventCache;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
 
     @Autowired
-    public EventCacheManager(Cache<String, Set<String>> eventCache) {
+    public EventCacheManager(Cache<String, Integer> eventCache) {
         this.eventCache = eventCache;
     }
 
@@ -28,40 +38,54 @@ public class EventCacheManager {
      * <p>This method ensures that an event (e.g., "open", "click") is only persisted if
      * it has not already been cached for the given lead within the cache's time window.
      *
-     * <p>If the event is already cached, it returns {@code false} to indicate that
-     * persistence should be skipped. If the event is new, it is added to the cache
-     * and the method returns {@code true} to indicate that it should be persisted.
+     * <p>Each lead is cached as a bitmask of the event types seen for it. The bit is set with an
+     * atomic compute on the cache entry, so when several identical events for the same lead arrive
+     * at once, exactly one of them is reported as new. Event types that don't match an
+     * {@link EventType} are not deduplicated.
      *
      * @param eventData The event data containing the type of event (e.g., "open", "click") and the lead uuid.
      * @return {@code true} if the event was newly cached and should be persisted,
      *         {@code false} if the event was already cached and should not be persisted.
      */
+    @Override
     public boolean cacheEvent(EventRequest eventData) {
         String leadUUID = eventData.getLeadUUID();
         String eventType = eventData.getEvent();
 
-        Set<String> cachedEvents = eventCache.getIfPresent(leadUUID);
+        EventType type;
+        try {
+            type = EventType.fromString(eventType);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Unknown event type: {} for Lead UUID: {}, skipping dedup", eventType, leadUUID);
+            accepted.increment();
+            return true;
+        }
+        int bit = 1 << type.ordinal();
 
-        if (cachedEvents == null) {
-            cachedEvents = new HashSet<>(); // If no events are cached for this UUID, create a new mutable set.
-        } else if (cachedEvents.contains(eventType)) {
-            return false; // Return false to indicate the event should NOT be persisted.
+        // Fast path for repeats: no write, so the entry's expiry isn't extended.
+        Integer seen = eventCache.getIfPresent(leadUUID);
+        if (seen != null && (seen & bit) != 0) {
+            rejected.increment();
+            return false;
         }
 
-        // Add the new event type.
-        cachedEvents.add(eventType);
+        boolean[] isNew = new boolean[1];
+        eventCache.asMap().compute(leadUUID, (uuid, mask) -> {
+            int current = mask != null ? mask : 0;
+            if ((current & bit) != 0) return mask;
 
-        // Update the cache with the modified set.
-        eventCache.put(leadUUID, cachedEvents);
+            isNew[0] = true;
+            return current | bit;
+        });
 
-        // Verify caching success
-        if (cachedEvents.contains(eventData.getEvent())) {
-            logger.info("Successfully cached event: {} for Lead UUID: {}", eventType, leadUUID);
-        } else {
-            logger.error("Failed to cache event: {} for Lead UUID: {}", eventType, leadUUID);
-        }
+        if (isNew[0]) logger.info("Successfully cached event: {} for Lead UUID: {}", eventType, leadUUID);
+        (isNew[0] ? accepted : rejected).increment();
+        return isNew[0];
+    }
 
-        return true;
+    @Override
+    public EventDedupStats getStats() {
+        return new EventDedupStats("caffeine", eventCache.estimatedSize(), -1, 0.0, accepted.sum(), rejected.sum());
     }
 
 }
@@ -0,0 +1,25 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dto.EventDedupStats;
+import com.saleset.core.dto.request.EventRequest;
+
+/**
+ * Decides whether a tracking event is the first of its type for a lead within the dedup window.
+ * The backend is chosen with {@code events.dedup.backend}: {@code caffeine} (exact, bounded number of
+ * leads, see {@link EventCacheManager}) or {@code bloom} (fixed memory, millions of leads, small
+ * false-positive rate, see {@link RotatingBloomEventDeduplicator}).
+ */
+public interface EventDeduplicator {
+
+    /**
+     * Records the event if it hasn't been seen yet. When identical events arrive concurrently,
+     * exactly one of them is reported as new.
+     *
+     * @param eventData The event type and lead UUID.
+     * @return {@code true} if the event is new and should be persisted, {@code false} if it's a repeat.
+     */
+    boolean cacheEvent(EventRequest eventData);
+
+    EventDedupStats getStats();
+
+}
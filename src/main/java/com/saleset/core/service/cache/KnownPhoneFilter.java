@@ -0,0 +1,179 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dao.ContactRepo;
+import com.saleset.core.dto.ContactPhoneNumbers;
+import com.saleset.core.entities.Contact;
+import com.saleset.core.util.BloomFilter;
+import com.saleset.core.util.PhoneNumberNormalizer;
+import com.saleset.core.dto.PhoneFilterStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter of every E.164 phone number stored on a contact, used to skip the
+ * existing-contact query for numbers that have never been seen.
+ * <p>
+ * The filter is loaded from {@code contacts} once the application is ready, updated on every contact
+ * this instance inserts, and topped up every {@code contacts.phoneFilter.refreshSeconds} with contacts
+ * inserted since the last load (e.g. by another instance). Until the initial load completes, and when
+ * {@code contacts.phoneFilter.enabled=false}, every number is reported as possibly known.
+ * <p>
+ * Auto-increment ids don't commit in order when several instances insert contacts, so a contact can
+ * become visible after higher ids were already read. Each refresh therefore rescans the last
+ * {@code contacts.phoneFilter.refreshOverlapIds} ids before the highest one loaded; adding a number
+ * twice is harmless.
+ * <p>
+ * A "possibly known" answer just means the database is queried as before. A "never seen" answer can
+ * be wrong for a number another instance inserted within the last refresh interval, or for a contact
+ * that committed more than {@code refreshOverlapIds} ids behind the highest id already loaded, so
+ * callers must confirm it before treating a number as new (see
+ * {@link com.saleset.core.service.persistence.ContactTransactionManager#findByPhone}). Confirmed misses
+ * are reported through {@link #recordFalseNegative} and counted in the stats.
+ */
+@Service
+public class KnownPhoneFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(KnownPhoneFilter.class);
+
+    private static final int PAGE_SIZE = 5000;
+
+    private final ContactRepo contactRepo;
+    private final BloomFilter filter;
+    private final boolean enabled;
+    private final long refreshSeconds;
+    private final int refreshOverlapIds;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    private volatile boolean ready;
+    private volatile int lastContactId;
+    private final LongAdder lookupsSkipped = new LongAdder();
+    private final LongAdder lookupsPerformed = new LongAdder();
+    private final LongAdder falseNegatives = new LongAdder();
+
+    @Autowired
+    public KnownPhoneFilter(ContactRepo contactRepo,
+                            @Value("${contacts.phoneFilter.enabled:true}") boolean enabled,
+                            @Value("${contacts.phoneFilter.expectedPhones:2000000}") long expectedPhones,
+                            @Value("${contacts.phoneFilter.falsePositiveRate:0.01}") double falsePositiveRate,
+                            @Value("${contacts.phoneFilter.refreshSeconds:30}") long refreshSeconds,
+                            @Value("${contacts.phoneFilter.refreshOverlapIds:1000}") int refreshOverlapIds) {
+        this.contactRepo = contactRepo;
+        this.enabled = enabled;
+        this.refreshSeconds = refreshSeconds;
+        this.refreshOverlapIds = Math.max(0, refreshOverlapIds);
+        this.filter = BloomFilter.create(expectedPhones, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) return;
+
+        long start = System.currentTimeMillis();
+        refresh();
+        ready = true;
+        logger.info("Known-phone filter loaded {} numbers through contact {} in {} ms ({} KB, {} hash functions)",
+                filter.approximateElementCount(), lastContactId, System.currentTimeMillis() - start,
+                filter.memoryBytes() / 1024, filter.hashFunctions());
+
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, Duration.ofSeconds(refreshSeconds));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+
+    /**
+     * Returns {@code false} only if none of the given numbers has ever been stored on a contact, in
+     * which case the existing-contact lookup can be skipped. Numbers that don't normalize are ignored;
+     * if none normalize, the lookup is never skipped.
+     *
+     * @param phones Candidate numbers, typically a lead's primary and secondary phone.
+     */
+    public boolean mightBeKnown(String... phones) {
+        boolean mightBeKnown = !ready || anyMightBeKnown(phones);
+        (mightBeKnown ? lookupsPerformed : lookupsSkipped).increment();
+        return mightBeKnown;
+    }
+
+    /**
+     * Registers the numbers of a newly inserted contact.
+     */
+    public void add(Contact contact) {
+        put(contact.getPrimaryPhone());
+        put(contact.getSecondaryPhone());
+    }
+
+    /**
+     * Registers the numbers of an existing contact that {@link #mightBeKnown} reported as never seen,
+     * typically one inserted by another instance since the last refresh.
+     */
+    public void recordFalseNegative(Contact contact) {
+        falseNegatives.increment();
+        add(contact);
+    }
+
+
+    public PhoneFilterStats getStats() {
+        return new PhoneFilterStats(ready, filter.approximateElementCount(), filter.bitSize(), filter.hashFunctions(),
+                filter.memoryBytes(), filter.expectedFpp(), lookupsSkipped.sum(), lookupsPerformed.sum(), falseNegatives.sum(),
+                lastContactId);
+    }
+
+
+    /*
+     * Adds the numbers of every contact after the last one loaded, minus the overlap that catches
+     * contacts whose lower ids committed late, in id order.
+     */
+    private synchronized void refresh() {
+        int afterId = Math.max(0, lastContactId - refreshOverlapIds);
+        List<ContactPhoneNumbers> page;
+        do {
+            page = contactRepo.findContactPhoneNumbersPage(afterId, PAGE_SIZE);
+            for (ContactPhoneNumbers numbers : page) {
+                put(numbers.primaryPhone());
+                put(numbers.secondaryPhone());
+            }
+            if (!page.isEmpty()) afterId = page.get(page.size() - 1).contactId();
+        } while (page.size() == PAGE_SIZE);
+        lastContactId = Math.max(lastContactId, afterId);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception ex) {
+            logger.error("Known-phone filter refresh failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private boolean anyMightBeKnown(String... phones) {
+        boolean anyValid = false;
+        for (String phone : phones) {
+            long e164 = PhoneNumberNormalizer.normalizeToE164Long(phone);
+            if (e164 == PhoneNumberNormalizer.INVALID) continue;
+            if (filter.mightContain(e164)) return true;
+            anyValid = true;
+        }
+        return !anyValid;
+    }
+
+    private void put(String phone) {
+        long e164 = PhoneNumberNormalizer.normalizeToE164Long(phone);
+        if (e164 != PhoneNumberNormalizer.INVALID) filter.put(e164);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.saleset.core.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.saleset.core.dto.LeadRoute;
+import com.saleset.core.entities.Lead;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Bounded cache of {@link LeadRoute}s keyed by lead UUID, so a tracking click can redirect, attach
+ * its event and decide whether to recompute engagement without reading the lead from the database.
+ * <p>
+ * Entries are added when a lead is inserted or first looked up by {@link com.saleset.core.dao.LeadRepo},
+ * and dropped whenever a write changes the booking URL, address or stage of a cached lead. Size and
+ * lifetime are set by {@code leads.routeCache.maxSize} and {@code leads.routeCache.ttlHours}.
+ */
+@Component
+public class LeadRoutingCache {
+
+    private final Cache<String, LeadRoute> leadRouteCache;
+
+    @Autowired
+    public LeadRoutingCache(Cache<String, LeadRoute> leadRouteCache) {
+        this.leadRouteCache = leadRouteCache;
+    }
+
+    public Optional<LeadRoute> find(String leadUUID) {
+        return Optional.ofNullable(leadRouteCache.getIfPresent(leadUUID));
+    }
+
+    public void put(String leadUUID, LeadRoute route) {
+        leadRouteCache.put(leadUUID, route);
+    }
+
+    public void put(Lead lead) {
+        put(lead.getUuid(), LeadRoute.of(lead));
+    }
+
+
+    /**
+     * Drops the cached route for a lead that was just written if any cached field no longer matches.
+     * Leads that aren't cached are left out, so bulk writers can call this for every lead they touch.
+     *
+     * @param lead The lead as written.
+     */
+    public void invalidateIfChanged(Lead lead) {
+        if (lead.getUuid() == null) return;
+
+        LeadRoute cached = leadRouteCache.getIfPresent(lead.getUuid());
+        if (cached != null && !cached.equals(LeadRoute.of(lead))) leadRouteCache.invalidate(lead.getUuid());
+    }
+
+}
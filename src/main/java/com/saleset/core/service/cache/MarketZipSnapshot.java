@@ -0,0 +1,183 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dao.MarketZipDataRepo;
+import com.saleset.core.dto.MarketZipSnapshotStats;
+import com.saleset.core.entities.MarketZipData;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable in-memory copy of the {@code in_market_zips} reference table, so booking-page and
+ * sender routing decisions need no database round trip.
+ * <p>
+ * The snapshot is a 100,000-slot {@code short[]} indexed by the numeric 5-digit zip. Each slot holds
+ * 0 for zips outside every market, or the 1-based index of the zip's (county, appointment type) pair,
+ * of which there are only a handful. It is reloaded every {@code market.zips.refreshMinutes} and on
+ * demand via {@link #refresh()}; readers always see either the old or the new snapshot in full. A
+ * reload that changes the data publishes a {@link MarketZipSnapshotChangedEvent}.
+ */
+@Service
+public class MarketZipSnapshot {
+
+    private final Logger logger = LoggerFactory.getLogger(MarketZipSnapshot.class);
+
+    private static final int ZIP_SLOTS = 100_000;
+
+    private final MarketZipDataRepo mzdRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${market.zips.refreshMinutes:60}")
+    private long refreshMinutes;
+
+    private volatile Snapshot snapshot = new Snapshot(new short[ZIP_SLOTS], new String[0], new String[0], 0, 0,
+            LocalDateTime.now());
+    private boolean loaded;
+
+    @Autowired
+    public MarketZipSnapshot(MarketZipDataRepo mzdRepo, ApplicationEventPublisher eventPublisher) {
+        this.mzdRepo = mzdRepo;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, Duration.ofMinutes(refreshMinutes));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+
+    /**
+     * Looks up the market data for a zip code.
+     *
+     * @param zipCode A 5-digit zip code.
+     * @return The market row for the zip, or empty if the zip isn't in a market or isn't a 5-digit zip.
+     */
+    public Optional<MarketZipData> find(String zipCode) {
+        int slot = toSlot(zipCode);
+        if (slot < 0) return Optional.empty();
+
+        Snapshot current = snapshot;
+        int entry = current.entries()[slot];
+        if (entry == 0) return Optional.empty();
+
+        return Optional.of(new MarketZipData(zipCode, current.counties()[entry - 1],
+                current.appointmentTypes()[entry - 1]));
+    }
+
+
+    /**
+     * Reloads the whole table and swaps the new snapshot in.
+     *
+     * @return The number of market zips loaded.
+     */
+    public synchronized int refresh() {
+        short[] entries = new short[ZIP_SLOTS];
+        Map<List<String>, Integer> entryIndex = new HashMap<>();
+        List<String> counties = new ArrayList<>();
+        List<String> appointmentTypes = new ArrayList<>();
+        int zipCount = 0;
+
+        for (MarketZipData mzd : mzdRepo.findAll()) {
+            int slot = toSlot(mzd.getZipCode());
+            if (slot < 0) {
+                logger.warn("Skipping market zip that isn't a 5-digit zip: {}", mzd);
+                continue;
+            }
+
+            int entry = entryIndex.computeIfAbsent(Arrays.asList(mzd.getCounty(), mzd.getAppointmentType()), key -> {
+                counties.add(mzd.getCounty());
+                appointmentTypes.add(mzd.getAppointmentType());
+                return counties.size();
+            });
+            entries[slot] = (short) entry;
+            zipCount++;
+        }
+
+        String[] countyArray = counties.toArray(new String[0]);
+        String[] appointmentTypeArray = appointmentTypes.toArray(new String[0]);
+        int version = fingerprint(entries, countyArray, appointmentTypeArray);
+        boolean changed = loaded && version != snapshot.version();
+
+        snapshot = new Snapshot(entries, countyArray, appointmentTypeArray, zipCount, version, LocalDateTime.now());
+        loaded = true;
+        logger.info("Market zip snapshot loaded: {} zips, {} distinct county/appointment types{}",
+                zipCount, counties.size(), changed ? " (changed)" : "");
+
+        if (changed) eventPublisher.publishEvent(new MarketZipSnapshotChangedEvent(version));
+        return zipCount;
+    }
+
+    /**
+     * Fingerprint of the loaded zip data, the same on every instance that loaded the same rows.
+     */
+    public int getVersion() { return snapshot.version(); }
+
+    public MarketZipSnapshotStats getStats() {
+        Snapshot current = snapshot;
+        return new MarketZipSnapshotStats(current.zipCount(), current.counties().length,
+                (long) current.entries().length * Short.BYTES, current.loadedAt());
+    }
+
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception ex) {
+            logger.error("Market zip snapshot refresh failed, keeping the current snapshot: {}", ex.getMessage());
+        }
+    }
+
+    // Hash of every in-market zip with its county and appointment type; independent of row order.
+    private static int fingerprint(short[] entries, String[] counties, String[] appointmentTypes) {
+        int hash = 1;
+        for (int slot = 0; slot < entries.length; slot++) {
+            int entry = entries[slot];
+            if (entry == 0) continue;
+            hash = 31 * hash + slot;
+            hash = 31 * hash + Objects.hashCode(counties[entry - 1]);
+            hash = 31 * hash + Objects.hashCode(appointmentTypes[entry - 1]);
+        }
+        return hash;
+    }
+
+    // Numeric value of a 5-digit zip, or -1 for anything else.
+    private static int toSlot(String zipCode) {
+        if (zipCode == null || zipCode.length() != 5) return -1;
+
+        int slot = 0;
+        for (int i = 0; i < 5; i++) {
+            char c = zipCode.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            slot = slot * 10 + (c - '0');
+        }
+        return slot;
+    }
+
+    private record Snapshot(short[] entries, String[] counties, String[] appointmentTypes, int zipCount,
+                            int version, LocalDateTime loadedAt) {}
+
+}
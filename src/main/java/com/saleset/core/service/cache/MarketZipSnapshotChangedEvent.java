@@ -0,0 +1,8 @@
+package com.saleset.core.service.cache;
+
+/**
+ * Published when a {@link MarketZipSnapshot} refresh loaded different zip data than the snapshot it
+ * replaced. Routing decisions made with the previous data may now be stale. {@code version} is a
+ * fingerprint of the zip data, the same on every instance that loaded the same rows.
+ */
+public record MarketZipSnapshotChangedEvent(int version) {}
@@ -0,0 +1,121 @@
+package com.saleset.core.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.saleset.core.dao.PhoneLookupRepo;
+import com.saleset.core.entities.PhoneLookup;
+import com.saleset.integration.twilio.dto.PhoneLookupCacheStats;
+import com.saleset.integration.twilio.dto.PhoneNumberDetails;
+import com.saleset.integration.twilio.service.TwilioManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache in front of {@link TwilioManager#lookupPhoneNumber}, keyed by E.164 number.
+ * <p>
+ * The in-process Caffeine tier answers repeat submissions without I/O; the {@code phone_lookups}
+ * table keeps results across restarts and instances. Both tiers honour {@code phone.lookup.ttlDays},
+ * after which the number is looked up again. Transient Twilio errors are never cached.
+ */
+@Service
+public class PhoneLookupCacheManager {
+
+    private final Logger logger = LoggerFactory.getLogger(PhoneLookupCacheManager.class);
+
+    private final Cache<String, PhoneLookup> phoneLookupCache;
+    private final PhoneLookupRepo phoneLookupRepo;
+    private final TwilioManager twilioManager;
+    private final Duration ttl;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public PhoneLookupCacheManager(Cache<String, PhoneLookup> phoneLookupCache, PhoneLookupRepo phoneLookupRepo,
+                                   TwilioManager twilioManager, @Value("${phone.lookup.ttlDays:30}") int ttlDays) {
+        this.phoneLookupCache = phoneLookupCache;
+        this.phoneLookupRepo = phoneLookupRepo;
+        this.twilioManager = twilioManager;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+
+    /**
+     * Returns the line type for a number from the first tier that has a fresh result, falling back
+     * to a Twilio lookup whose result is then stored in both tiers. Cache hits complete immediately;
+     * misses are sent to Twilio on its async pool. The result is stored even if the caller stops
+     * waiting for it, so a timed-out lookup still warms the cache for the next submission.
+     *
+     * @param phoneE164 The number in E.164 format.
+     * @return A future completed with the line type, or exceptionally with the Twilio error.
+     */
+    public CompletableFuture<PhoneNumberDetails> lookupAsync(String phoneE164) {
+        Optional<PhoneNumberDetails> cached = findCached(phoneE164);
+        if (cached.isPresent()) return CompletableFuture.completedFuture(cached.get());
+
+        misses.increment();
+        CompletableFuture<PhoneNumberDetails> lookup = twilioManager.lookupPhoneNumberAsync(phoneE164);
+        lookup.thenAccept(details -> {
+            try {
+                store(phoneE164, details);
+            } catch (RuntimeException ex) {
+                logger.error("Failed to cache phone lookup for {} --- Message: {}", phoneE164, ex.getMessage());
+            }
+        });
+        return lookup.copy();
+    }
+
+
+    /**
+     * Checks both tiers without going to Twilio. Database hits are promoted to the in-process tier.
+     *
+     * @param phoneE164 The number in E.164 format.
+     * @return The fresh cached result, or empty on a miss.
+     */
+    public Optional<PhoneNumberDetails> findCached(String phoneE164) {
+        PhoneLookup inMemory = phoneLookupCache.getIfPresent(phoneE164);
+        if (inMemory != null && inMemory.isFresh(ttl)) {
+            memoryHits.increment();
+            return Optional.of(new PhoneNumberDetails(inMemory.toLineType()));
+        }
+
+        Optional<PhoneLookup> stored = phoneLookupRepo.findByPhone(phoneE164).filter(lookup -> lookup.isFresh(ttl));
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            phoneLookupCache.put(phoneE164, stored.get());
+            return Optional.of(new PhoneNumberDetails(stored.get().toLineType()));
+        }
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Records a fresh Twilio result in both tiers.
+     */
+    public void store(String phoneE164, PhoneNumberDetails details) {
+        PhoneLookup lookup = new PhoneLookup(phoneE164, details.getType());
+        phoneLookupCache.put(phoneE164, lookup);
+        phoneLookupRepo.safeUpsert(lookup);
+        logger.debug("Cached phone lookup: {}", lookup);
+    }
+
+
+    public PhoneLookupCacheStats getStats() {
+        long memory = memoryHits.sum();
+        long database = databaseHits.sum();
+        long miss = misses.sum();
+        long total = memory + database + miss;
+        return new PhoneLookupCacheStats(memory, database, miss, phoneLookupCache.estimatedSize(),
+                total == 0 ? 0 : (double) (memory + database) / total);
+    }
+
+}
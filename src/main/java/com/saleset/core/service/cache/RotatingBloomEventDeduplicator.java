@@ -0,0 +1,140 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dto.EventDedupStats;
+import com.saleset.core.dto.request.EventRequest;
+import com.saleset.core.enums.EventType;
+import com.saleset.core.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory {@link EventDeduplicator} for event volumes the Caffeine cache can't hold. Selected by
+ * {@code events.dedup.backend=bloom}.
+ * <p>
+ * The dedup window ({@code events.dedup.bloom.windowMinutes}) is split into time buckets, one
+ * {@link BloomFilter} per bucket, kept in a ring of {@code generations} filters. New events go into
+ * the current bucket's filter and are checked against every filter in the ring. Each time a bucket
+ * elapses the oldest filter is cleared and becomes the current one, so an event is remembered for at
+ * least the full window and memory never grows.
+ * <p>
+ * Each filter is sized for {@code expectedEventsPerBucket} (lead, event type) pairs at
+ * {@code falsePositiveRate / generations}, which keeps the chance of wrongly dropping a new event near
+ * {@code falsePositiveRate}. A false positive drops a genuine first event; a repeat is never let
+ * through while its bucket is live.
+ */
+@Service
+@ConditionalOnProperty(name = "events.dedup.backend", havingValue = "bloom")
+public class RotatingBloomEventDeduplicator implements EventDeduplicator {
+
+    private final Logger logger = LoggerFactory.getLogger(RotatingBloomEventDeduplicator.class);
+
+    // Check-then-put must be atomic per key; striping keeps unrelated leads from contending.
+    private static final int LOCK_STRIPES = 64;
+
+    private final BloomFilter[] generations;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final long bucketMillis;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    private volatile int current;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RotatingBloomEventDeduplicator(@Value("${events.dedup.bloom.windowMinutes:180}") long windowMinutes,
+                                          @Value("${events.dedup.bloom.generations:7}") int generations,
+                                          @Value("${events.dedup.bloom.expectedEventsPerBucket:1000000}") long expectedEventsPerBucket,
+                                          @Value("${events.dedup.bloom.falsePositiveRate:0.001}") double falsePositiveRate) {
+        if (generations < 2) throw new IllegalArgumentException("events.dedup.bloom.generations must be at least 2");
+
+        this.generations = new BloomFilter[generations];
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = BloomFilter.create(expectedEventsPerBucket, falsePositiveRate / generations);
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+
+        // The filter being cleared is always the oldest, so generations - 1 buckets must span the window.
+        this.bucketMillis = Math.max(1, Duration.ofMinutes(windowMinutes).toMillis() / (generations - 1));
+    }
+
+    @PostConstruct
+    public void init() {
+        logger.info("Event dedup using {} rotating Bloom filters, rotated every {} s ({} KB)",
+                generations.length, bucketMillis / 1000, memoryBytes() / 1024);
+
+        scheduler.setThreadNamePrefix("event-dedup-rotate-");
+        scheduler.initialize();
+        scheduler.scheduleAtFixedRate(this::rotate, Duration.ofMillis(bucketMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+
+    @Override
+    public boolean cacheEvent(EventRequest eventData) {
+        EventType type;
+        try {
+            type = EventType.fromString(eventData.getEvent());
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Unknown event type: {} for Lead UUID: {}, skipping dedup",
+                    eventData.getEvent(), eventData.getLeadUUID());
+            accepted.increment();
+            return true;
+        }
+
+        String key = eventData.getLeadUUID() + '|' + type.name();
+        synchronized (locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)]) {
+            for (BloomFilter filter : generations) {
+                if (filter.mightContain(key)) {
+                    rejected.increment();
+                    return false;
+                }
+            }
+            generations[current].put(key);
+        }
+
+        accepted.increment();
+        return true;
+    }
+
+
+    /**
+     * Starts a new time bucket: clears the oldest filter and makes it the current one.
+     */
+    public synchronized void rotate() {
+        int next = (current + 1) % generations.length;
+        generations[next].clear();
+        current = next;
+    }
+
+    @Override
+    public EventDedupStats getStats() {
+        long entries = 0;
+        double noFalsePositive = 1.0;
+        for (BloomFilter filter : generations) {
+            entries += filter.approximateElementCount();
+            noFalsePositive *= 1 - filter.expectedFpp();
+        }
+        return new EventDedupStats("bloom", entries, memoryBytes(), 1 - noFalsePositive,
+                accepted.sum(), rejected.sum());
+    }
+
+
+    private long memoryBytes() {
+        long bytes = 0;
+        for (BloomFilter filter : generations) bytes += filter.memoryBytes();
+        return bytes;
+    }
+
+}
@@ -1,98 +1,72 @@
 package com.saleset.core.service.outreach;
 
-import com.saleset.core.dao.AddressRepo;
-import com.saleset.core.dao.AppointmentRepo;
-import com.saleset.core.dao.ContactRepo;
-import com.saleset.core.dao.MarketZipDataRepo;
-import com.saleset.core.entities.Address;
-import com.saleset.core.entities.Appointment;
 import com.saleset.core.entities.Contact;
 import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.OutboundMessage;
+import com.saleset.core.enums.OutboundChannel;
 import com.saleset.core.service.outreach.templates.FollowUpTextGenerator;
-import com.saleset.integration.sendgrid.SendGridManager;
-import com.saleset.integration.twilio.service.TwilioManager;
-import com.twilio.rest.api.v2010.account.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
+/**
+ * Composes the follow-up SMS and email for a lead as outbox messages. Nothing is sent here: the
+ * messages are queued together with the lead's engagement update and delivered by
+ * {@link com.saleset.core.service.outreach.task.OutboundMessageRelay}.
+ */
 @Service
-public class Dispatcher implements PhoneRoutingStrategy {
-
-    @Value("${twilio.lips.number}")
-    private String lipsNumber;
-
-    @Value("${twilio.nyps.number}")
-    private String nypsNumber;
+public class Dispatcher {
 
     private final Logger logger = LoggerFactory.getLogger(Dispatcher.class);
 
-    private final TwilioManager twilioManager;
-    private final ContactRepo contactRepo;
-    private final AddressRepo addressRepo;
-    private final MarketZipDataRepo mzdRepo;
-    private final AppointmentRepo appointmentRepo;
-    private final SendGridManager sendGridManager;
+    private final PhoneRoutingStrategy phoneRoutingStrategy;
 
     @Autowired
-    public Dispatcher(TwilioManager twilioManager,
-                      ContactRepo contactRepo,
-                      AddressRepo addressRepo,
-                      MarketZipDataRepo mzdRepo,
-                      AppointmentRepo appointmentRepo,
-                      SendGridManager sendGridManager) {
-        this.twilioManager = twilioManager;
-        this.contactRepo = contactRepo;
-        this.addressRepo = addressRepo;
-        this.mzdRepo = mzdRepo;
-        this.appointmentRepo = appointmentRepo;
-        this.sendGridManager = sendGridManager;
+    public Dispatcher(PhoneRoutingStrategy phoneRoutingStrategy) {
+        this.phoneRoutingStrategy = phoneRoutingStrategy;
     }
 
 
-    public void executeSmsFollowUp(Lead lead) {
-        Optional<Contact> optContact = contactRepo.findContactById(lead.getContactId());
+    /**
+     * Builds the SMS follow-up for a lead, sent from the lead's stored sender number. Contact, address
+     * and market data come from the batch context prefetched by {@link OutreachBatchLoader}, so no
+     * queries are issued here.
+     *
+     * @return The pending SMS, or empty if the lead's contact could not be found.
+     */
+    public Optional<OutboundMessage> composeSmsFollowUp(Lead lead, OutreachBatchContext context) {
+        Optional<Contact> optContact = context.contactFor(lead);
         if (optContact.isEmpty()) {
             logger.error("Contact could not be found when attempting dispatch for Lead: {}", lead);
-            return;
+            return Optional.empty();
         }
 
-        String fromNumber = determineFromNumber(lead, optContact.get());
+        // Leads not yet reached by the sender backfill are routed on the fly.
+        String fromNumber = lead.getSenderNumber() != null
+                ? lead.getSenderNumber()
+                : phoneRoutingStrategy.determineFromNumber(lead, optContact.get(), context);
 
         FollowUpTextGenerator textGen = new FollowUpTextGenerator(lead, optContact.get());
         String body = textGen.build(lead);
 
-        Message message = twilioManager.sendSMS(fromNumber, optContact.get().getPrimaryPhone(), body);
-        logger.info("Message attempted for Lead: {} -> Response Status: {}", lead.getId(), message.getStatus());
+        return Optional.of(new OutboundMessage(lead, OutboundChannel.SMS, fromNumber,
+                optContact.get().getPrimaryPhone(), body));
     }
 
 
-    public void executeFollowUpEmail(Lead lead) {
-        Address address;
-        Optional<Address> optAddress = addressRepo.findAddressByLead(lead);
-        address = optAddress.orElse(new Address());
+    /**
+     * Builds the follow-up call alert for a lead. The email is rendered from the lead, contact and
+     * address when it is relayed, so only the lead reference is stored.
+     *
+     * @return The pending email, or empty if the lead's contact could not be found.
+     */
+    public Optional<OutboundMessage> composeFollowUpEmail(Lead lead, OutreachBatchContext context) {
+        if (context.contactFor(lead).isEmpty()) return Optional.empty();
 
-        Optional<Contact> optContact = contactRepo.findContactById(lead.getContactId());
-        if (optContact.isEmpty()) return;
-
-        sendGridManager.sendFollowUpCallAlert(lead, optContact.get(), address);
+        return Optional.of(new OutboundMessage(lead, OutboundChannel.EMAIL, null, null, null));
     }
 
-
-    @Override
-    public String getLipsNumber() { return lipsNumber; }
-
-    @Override
-    public String getNypsNumber() { return nypsNumber; }
-
-    @Override
-    public MarketZipDataRepo getMarketZipDataRepo() { return mzdRepo; }
-
-    @Override
-    public AddressRepo getAddressRepo() { return addressRepo; }
-
 }
@@ -0,0 +1,44 @@
+package com.saleset.core.service.outreach;
+
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Contact;
+import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.MarketZipData;
+import com.saleset.core.service.cache.MarketZipSnapshot;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only view of the contacts and addresses referenced by one outreach batch, plus the market-zip
+ * snapshot. Built once per batch by {@link OutreachBatchLoader}, so the Dispatcher and PhoneRoutingStrategy
+ * resolve everything they need from memory instead of issuing per-lead queries.
+ */
+public class OutreachBatchContext {
+
+    private final Map<Integer, Contact> contactsById;
+    private final Map<Integer, Address> addressesById;
+    private final MarketZipSnapshot marketZips;
+
+    public OutreachBatchContext(Map<Integer, Contact> contactsById,
+                                Map<Integer, Address> addressesById,
+                                MarketZipSnapshot marketZips) {
+        this.contactsById = Map.copyOf(contactsById);
+        this.addressesById = Map.copyOf(addressesById);
+        this.marketZips = marketZips;
+    }
+
+    public Optional<Contact> contactFor(Lead lead) {
+        return Optional.ofNullable(contactsById.get(lead.getContactId()));
+    }
+
+    public Optional<Address> addressFor(Lead lead) {
+        if (lead.getAddressId() == null) return Optional.empty();
+        return Optional.ofNullable(addressesById.get(lead.getAddressId()));
+    }
+
+    public Optional<MarketZipData> marketZipFor(Address address) {
+        return marketZips.find(address.getZipCode());
+    }
+
+}
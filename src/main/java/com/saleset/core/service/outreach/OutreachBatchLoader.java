@@ -0,0 +1,55 @@
+package com.saleset.core.service.outreach;
+
+import com.saleset.core.dao.AddressRepo;
+import com.saleset.core.dao.ContactRepo;
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Contact;
+import com.saleset.core.entities.Lead;
+import com.saleset.core.service.cache.MarketZipSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class OutreachBatchLoader {
+
+    private final ContactRepo contactRepo;
+    private final AddressRepo addressRepo;
+    private final MarketZipSnapshot marketZipSnapshot;
+
+    @Autowired
+    public OutreachBatchLoader(ContactRepo contactRepo, AddressRepo addressRepo, MarketZipSnapshot marketZipSnapshot) {
+        this.contactRepo = contactRepo;
+        this.addressRepo = addressRepo;
+        this.marketZipSnapshot = marketZipSnapshot;
+    }
+
+    /**
+     * Prefetches everything the Dispatcher needs for a batch of leads with two {@code IN (...)} queries:
+     * one for contacts and one for addresses. Market data comes from the in-memory {@link MarketZipSnapshot}.
+     *
+     * @param leads The leads about to be dispatched.
+     * @return A context the Dispatcher resolves contacts, addresses and market data from.
+     */
+    public OutreachBatchContext load(List<Lead> leads) {
+        Set<Integer> contactIds = leads.stream().map(Lead::getContactId).collect(Collectors.toSet());
+        Set<Integer> addressIds = leads.stream()
+                .map(Lead::getAddressId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Integer, Contact> contacts = contactRepo.findContactsByIds(contactIds).stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+        Map<Integer, Address> addresses = addressRepo.findAddressesByIds(addressIds).stream()
+                .collect(Collectors.toMap(Address::getId, Function.identity()));
+
+        return new OutreachBatchContext(contacts, addresses, marketZipSnapshot);
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.saleset.core.service.outreach;
 
-import com.saleset.core.dao.AddressRepo;
-import com.saleset.core.dao.MarketZipDataRepo;
 import com.saleset.core.entities.Address;
 import com.saleset.core.entities.Contact;
 import com.saleset.core.entities.Lead;
@@ -11,32 +9,27 @@ import java.util.Optional;
 
 public interface PhoneRoutingStrategy {
 
-    String getLipsNumber();
-    String getNypsNumber();
-    MarketZipDataRepo getMarketZipDataRepo();
-    AddressRepo getAddressRepo();
-
-    default String determineFromNumber(Lead lead, Contact contact) {
-        Optional<Address> optAddress = getAddressRepo().findAddressById(lead.getAddressId());
-        if (optAddress.isEmpty() || optAddress.get().getZipCode() == null) {
-            return fallbackByPhone(contact);
-        }
-
-        Optional<MarketZipData> optMzd = getMarketZipDataRepo().findByAddress(optAddress.get());
-        if (optMzd.isEmpty()) {
-            return fallbackByPhone(contact);
-        }
-
-        String county = optMzd.get().getCounty();
-        return ("SUFFOLK".equals(county) || "NASSAU".equals(county)) ? getLipsNumber() : getNypsNumber();
-    }
-
-    private String fallbackByPhone(Contact contact) {
-        String phone = contact.getPrimaryPhone();
-        if (phone != null && (phone.startsWith("+1631") || phone.startsWith("+1516"))) {
-            return getLipsNumber();
-        }
-        return getNypsNumber();
+    /**
+     * Chooses the sending number from the lead's address zip, its in-market county and the contact's
+     * phone number, without any database access.
+     *
+     * @param zipCode The address zip, or null.
+     * @param county  The in-market county of the zip, or null if it isn't in a market.
+     * @param phone   The contact's phone in E.164, or null.
+     * @return The sender number.
+     */
+    String determineFromNumber(String zipCode, String county, String phone);
+
+    /**
+     * Chooses the sending number for a lead. Address and market data are resolved from the
+     * prefetched batch context.
+     */
+    default String determineFromNumber(Lead lead, Contact contact, OutreachBatchContext context) {
+        Optional<Address> optAddress = context.addressFor(lead);
+        String zipCode = optAddress.map(Address::getZipCode).orElse(null);
+        String county = optAddress.flatMap(context::marketZipFor).map(MarketZipData::getCounty).orElse(null);
+
+        return determineFromNumber(zipCode, county, contact.getPrimaryPhone());
     }
 
 }
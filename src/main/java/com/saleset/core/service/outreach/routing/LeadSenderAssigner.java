@@ -0,0 +1,188 @@
+package com.saleset.core.service.outreach.routing;
+
+import com.saleset.core.dao.JobRunRepo;
+import com.saleset.core.dao.LeadBatchWriter;
+import com.saleset.core.dao.LeadRepo;
+import com.saleset.core.dto.LeadRoutingInputs;
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Contact;
+import com.saleset.core.entities.MarketZipData;
+import com.saleset.core.service.cache.MarketZipSnapshot;
+import com.saleset.core.service.cache.MarketZipSnapshotChangedEvent;
+import com.saleset.core.service.outreach.task.TaskConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Assigns each lead's sender number so the send path only reads {@code leads.sender_number}.
+ * <p>
+ * New leads are resolved once at intake. Stored senders are re-resolved against the routing inputs:
+ * the routing table with its sender numbers resolved, plus the in-market zip data. Their combined
+ * version is compared with the last completed full pass, recorded in the {@code sender_reassign} row
+ * of {@code job_runs}. When they differ, every lead is re-resolved in id-ordered pages and only the
+ * senders that changed are written back, in JDBC batches.
+ * <p>
+ * The comparison runs at startup, which covers a routing table shipped in a deploy, changed
+ * sender-number environment variables and zip edits made while the application was down. It also
+ * runs whenever a reloaded routing table or a market-zip refresh changes the inputs at runtime. Every
+ * instance sees the same change, so each pass is claimed per version and runs on only one of them; a
+ * claim left unfinished for {@code routing.senders.claimTimeoutMinutes} is taken over. When the
+ * senders are already current, leads that predate the column (or whose intake resolution was skipped)
+ * are filled at startup when {@code routing.senders.backfillOnStartup=true}.
+ */
+@Service
+public class LeadSenderAssigner {
+
+    private final Logger logger = LoggerFactory.getLogger(LeadSenderAssigner.class);
+
+    private final RoutingTableManager routingTableManager;
+    private final MarketZipSnapshot marketZipSnapshot;
+    private final LeadRepo leadRepo;
+    private final LeadBatchWriter leadBatchWriter;
+    private final JobRunRepo jobRunRepo;
+    private final TaskConfig taskConfig;
+    private final ExecutorService reassignExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("sender-reassign-"));
+
+    @Value("${routing.senders.backfillOnStartup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${routing.senders.pageSize:1000}")
+    private int pageSize;
+
+    @Value("${routing.senders.claimTimeoutMinutes:60}")
+    private long claimTimeoutMinutes;
+
+    @Autowired
+    public LeadSenderAssigner(RoutingTableManager routingTableManager, MarketZipSnapshot marketZipSnapshot,
+                              LeadRepo leadRepo, LeadBatchWriter leadBatchWriter, JobRunRepo jobRunRepo,
+                              TaskConfig taskConfig) {
+        this.routingTableManager = routingTableManager;
+        this.marketZipSnapshot = marketZipSnapshot;
+        this.leadRepo = leadRepo;
+        this.leadBatchWriter = leadBatchWriter;
+        this.jobRunRepo = jobRunRepo;
+        this.taskConfig = taskConfig;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reassignExecutor.shutdownNow();
+    }
+
+
+    /**
+     * Resolves the sender number for a new lead from its address zip, the zip's in-market county and
+     * the contact's primary phone.
+     *
+     * @param contact The lead's contact.
+     * @param address The lead's address, or null.
+     * @return The sender number.
+     */
+    public String resolve(Contact contact, Address address) {
+        return resolve(address != null ? address.getZipCode() : null, contact.getPrimaryPhone());
+    }
+
+
+    @EventListener
+    public void onRoutingTableReloaded(RoutingTableReloadedEvent event) {
+        reassignInBackground();
+    }
+
+    @EventListener
+    public void onMarketZipsChanged(MarketZipSnapshotChangedEvent event) {
+        reassignInBackground();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reassignOnStartup() {
+        long version = routingInputsVersion();
+        boolean current = jobRunRepo.findByName(REASSIGN_JOB).filter(run -> run.isCompletedFor(version)).isPresent();
+        if (!current) {
+            logger.info("Routing inputs changed since the last sender re-resolve (version {}), re-resolving all leads", version);
+            reassignInBackground();
+        } else if (backfillOnStartup) {
+            reassign(true);
+        }
+    }
+
+
+    /**
+     * Re-resolves stored sender numbers against the current routing table and market data.
+     *
+     * @param onlyUnresolved Whether to limit the pass to leads that have no sender number yet.
+     * @return The number of leads whose sender number was updated.
+     */
+    public int reassign(boolean onlyUnresolved) {
+        long start = System.currentTimeMillis();
+        int scanned = 0;
+        int updated = 0;
+        int afterId = 0;
+
+        List<LeadRoutingInputs> page;
+        while (!(page = leadRepo.findLeadRoutingInputsPage(afterId, onlyUnresolved, pageSize)).isEmpty()) {
+            Map<Integer, String> changed = new HashMap<>();
+            for (LeadRoutingInputs inputs : page) {
+                String sender = resolve(inputs.zipCode(), inputs.primaryPhone());
+                if (!Objects.equals(sender, inputs.senderNumber())) changed.put(inputs.leadId(), sender);
+            }
+
+            if (!changed.isEmpty()) updated += leadBatchWriter.writeSenderNumbers(changed, pageSize);
+            scanned += page.size();
+            afterId = page.get(page.size() - 1).leadId();
+        }
+
+        logger.info("Sender numbers {}: {} of {} leads updated in {} ms",
+                onlyUnresolved ? "backfilled" : "re-resolved", updated, scanned, System.currentTimeMillis() - start);
+        return updated;
+    }
+
+
+    private static final String REASSIGN_JOB = "sender_reassign";
+
+    // Runs off the calling thread, so startup, a reload or an HTTP-triggered refresh doesn't wait for the pass.
+    // The version is taken when the pass starts, so a pass always covers the inputs it is recorded against.
+    private void reassignInBackground() {
+        reassignExecutor.execute(() -> {
+            long version = routingInputsVersion();
+            try {
+                if (!jobRunRepo.claimRun(REASSIGN_JOB, version, taskConfig.getWorkerId(),
+                        Duration.ofMinutes(claimTimeoutMinutes))) {
+                    logger.info("Sender re-resolve for version {} already done or claimed by another instance", version);
+                    return;
+                }
+                reassign(false);
+                jobRunRepo.completeRun(REASSIGN_JOB, version);
+            } catch (Exception ex) {
+                logger.error("Sender re-resolve for version {} failed: {}", version, ex.getMessage(), ex);
+            }
+        });
+    }
+
+    // Routing table version in the high half, market zip version in the low half.
+    private long routingInputsVersion() {
+        return ((long) routingTableManager.getRoutingTable().version() << 32)
+                | (marketZipSnapshot.getVersion() & 0xFFFFFFFFL);
+    }
+
+    private String resolve(String zipCode, String phone) {
+        String county = marketZipSnapshot.find(zipCode).map(MarketZipData::getCounty).orElse(null);
+        return routingTableManager.determineFromNumber(zipCode, county, phone);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.saleset.core.service.outreach.routing;
+
+import com.saleset.core.util.DigitPrefixTrie;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable snapshot of the sender-number routing rules, parsed from a properties file:
+ * <pre>
+ * sender.lips=${twilio.lips.number}   # sender aliases and their numbers (placeholders allowed)
+ * default=nyps                        # sender used when no rule matches
+ * zip.11743=lips                      # exact 5-digit zip
+ * county.SUFFOLK=lips                 # in-market county of the address zip
+ * prefix.1631=lips                    # longest E.164 digit prefix of the contact's phone
+ * </pre>
+ * Rules are tried in the order zip, county, phone prefix. An address in a known market county without a
+ * county rule goes to the default sender rather than falling through to the phone prefix.
+ * <p>
+ * {@link #version()} fingerprints the rules with their sender numbers resolved, so it changes when a
+ * sender's number changes even if the file doesn't, and is the same on every instance with the same
+ * rules.
+ */
+public class RoutingTable {
+
+    private final Map<String, String> zipSenders;
+    private final Map<String, String> countySenders;
+    private final DigitPrefixTrie<String> prefixSenders;
+    private final String defaultSender;
+    private final int version;
+
+    private RoutingTable(Map<String, String> zipSenders, Map<String, String> countySenders,
+                         Map<String, String> prefixSenders, String defaultSender) {
+        this.zipSenders = Map.copyOf(zipSenders);
+        this.countySenders = Map.copyOf(countySenders);
+        this.prefixSenders = DigitPrefixTrie.of(prefixSenders);
+        this.defaultSender = defaultSender;
+        // Map hash codes depend only on content, not insertion order
+        this.version = Objects.hash(zipSenders, countySenders, prefixSenders, defaultSender);
+    }
+
+    /**
+     * Parses a routing table, resolving each sender alias to its number.
+     *
+     * @param properties          The raw routing properties.
+     * @param placeholderResolver Resolves {@code ${...}} placeholders in sender numbers, e.g. from the Environment.
+     * @throws IllegalArgumentException if the default or a rule refers to an undefined sender.
+     */
+    public static RoutingTable parse(Properties properties, UnaryOperator<String> placeholderResolver) {
+        Map<String, String> senders = new HashMap<>();
+        Map<String, String> zips = new HashMap<>();
+        Map<String, String> counties = new HashMap<>();
+        Map<String, String> prefixes = new HashMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            if (key.startsWith("sender.")) senders.put(key.substring(7), placeholderResolver.apply(value));
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            if (key.startsWith("zip.")) zips.put(key.substring(4), senderFor(senders, value, key));
+            else if (key.startsWith("county.")) counties.put(normalizeCounty(key.substring(7)), senderFor(senders, value, key));
+            else if (key.startsWith("prefix.")) prefixes.put(key.substring(7), senderFor(senders, value, key));
+        }
+
+        String defaultAlias = properties.getProperty("default");
+        if (defaultAlias == null) throw new IllegalArgumentException("Routing table has no default sender");
+
+        return new RoutingTable(zips, counties, prefixes, senderFor(senders, defaultAlias.trim(), "default"));
+    }
+
+
+    /**
+     * Chooses the sender number for a lead.
+     *
+     * @param zipCode The lead's address zip, or null.
+     * @param county  The in-market county of that zip, or null if the zip isn't in a market.
+     * @param phone   The contact's phone number in E.164, or null.
+     * @return The sender number.
+     */
+    public String resolve(String zipCode, String county, String phone) {
+        if (zipCode != null) {
+            String zipSender = zipSenders.get(zipCode);
+            if (zipSender != null) return zipSender;
+        }
+
+        if (county != null) return countySenders.getOrDefault(normalizeCounty(county), defaultSender);
+
+        String prefixSender = prefixSenders.longestPrefixMatch(phone);
+        return prefixSender != null ? prefixSender : defaultSender;
+    }
+
+    public int zipRuleCount() { return zipSenders.size(); }
+
+    public int countyRuleCount() { return countySenders.size(); }
+
+    public int prefixRuleCount() { return prefixSenders.size(); }
+
+    public int version() { return version; }
+
+
+    private static String senderFor(Map<String, String> senders, String alias, String rule) {
+        String number = senders.get(alias);
+        if (number == null || number.isBlank()) {
+            throw new IllegalArgumentException("Routing rule '" + rule + "' refers to unknown sender '" + alias + "'");
+        }
+        return number;
+    }
+
+    private static String normalizeCounty(String county) { return county.trim().toUpperCase(Locale.ROOT); }
+
+}
@@ -0,0 +1,129 @@
+package com.saleset.core.service.outreach.routing;
+
+import com.saleset.core.service.outreach.PhoneRoutingStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Serves sender-number routing from a {@link RoutingTable} loaded from {@code routing.table.location}
+ * (a classpath or file resource). The resource is re-read every {@code routing.table.reloadSeconds};
+ * when its content changed, the new table replaces the old one atomically and a
+ * {@link RoutingTableReloadedEvent} is published. A table that fails to parse is logged and ignored,
+ * leaving the previous one in place.
+ */
+@Service
+public class RoutingTableManager implements PhoneRoutingStrategy {
+
+    private final Logger logger = LoggerFactory.getLogger(RoutingTableManager.class);
+
+    private final ResourceLoader resourceLoader;
+    private final Environment environment;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${routing.table.location:classpath:routing-table.properties}")
+    private String location;
+
+    @Value("${routing.table.reloadSeconds:60}")
+    private long reloadSeconds;
+
+    private volatile RoutingTable routingTable;
+    private String loadedContent;
+
+    @Autowired
+    public RoutingTableManager(ResourceLoader resourceLoader, Environment environment,
+                               ApplicationEventPublisher eventPublisher) {
+        this.resourceLoader = resourceLoader;
+        this.environment = environment;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // The first load must succeed: there is no previous table to fall back on.
+        routingTable = parse(loadedContent = readContent());
+        logTable("loaded");
+
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly, Duration.ofSeconds(reloadSeconds));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+
+    @Override
+    public String determineFromNumber(String zipCode, String county, String phone) {
+        return routingTable.resolve(zipCode, county, phone);
+    }
+
+
+    /**
+     * Re-reads the routing resource and swaps in the new table if it changed.
+     *
+     * @return {@code true} if a changed table was loaded.
+     * @throws IOException if the resource can't be read.
+     * @throws IllegalArgumentException if the new table is invalid.
+     */
+    public synchronized boolean reload() throws IOException {
+        String content = readContent();
+        if (content.equals(loadedContent)) return false;
+
+        RoutingTable reloaded = parse(content);
+        routingTable = reloaded;
+        loadedContent = content;
+        logTable("reloaded");
+
+        eventPublisher.publishEvent(new RoutingTableReloadedEvent(reloaded));
+        return true;
+    }
+
+    public RoutingTable getRoutingTable() { return routingTable; }
+
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception ex) {
+            logger.error("Routing table reload from {} failed, keeping the current table: {}", location, ex.getMessage());
+        }
+    }
+
+    private String readContent() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private RoutingTable parse(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        return RoutingTable.parse(properties, environment::resolveRequiredPlaceholders);
+    }
+
+    private void logTable(String action) {
+        logger.info("Routing table {} from {}: {} zip, {} county and {} prefix rules", action, location,
+                routingTable.zipRuleCount(), routingTable.countyRuleCount(), routingTable.prefixRuleCount());
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.saleset.core.service.outreach.routing;
+
+/**
+ * Published when a changed routing table has been loaded and is live. Senders resolved with the
+ * previous table may now be stale.
+ */
+public record RoutingTableReloadedEvent(RoutingTable routingTable) {}
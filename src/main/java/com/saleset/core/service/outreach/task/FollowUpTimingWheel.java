@@ -0,0 +1,188 @@
+package com.saleset.core.service.outreach.task;
+
+import com.saleset.core.entities.Lead;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel that holds the follow-ups due over the next few hours, so each lead
+ * can be fired at its exact {@code nextFollowUp} instead of in one burst per polling window.
+ * <p>
+ * Three levels of 60 slots each tick at one second, one minute and one hour, giving a horizon of
+ * 60 hours. Entries in a coarse level cascade down to the next finer level when their slot comes
+ * up, and fire once they reach the one-second level.
+ * <p>
+ * Each lead is tracked by id with its current due time. Rescheduling a lead simply records the new
+ * due time; the old entry stays in the wheel and is dropped as stale when its slot fires.
+ * All operations are no-ops unless {@code task.dispatch.mode=wheel}.
+ */
+@Component
+public class FollowUpTimingWheel {
+
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_SIZE = 60;
+    private static final int LEVELS = 3;
+
+    private final boolean enabled;
+    private final long[] levelTickMillis = new long[LEVELS];
+    private final List<List<List<Entry>>> levels = new ArrayList<>(LEVELS);
+    private final Map<Integer, Long> dueTimes = new HashMap<>();
+    // Entries that were already due when scheduled; returned by the next advance().
+    private final List<Entry> overdue = new ArrayList<>();
+    private long currentTime = -1;
+
+    @Autowired
+    public FollowUpTimingWheel(TaskConfig taskConfig) {
+        this.enabled = taskConfig.isWheelDispatch();
+
+        long tick = TICK_MILLIS;
+        for (int level = 0; level < LEVELS; level++) {
+            levelTickMillis[level] = tick;
+            List<List<Entry>> buckets = new ArrayList<>(WHEEL_SIZE);
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) buckets.add(new ArrayList<>());
+            levels.add(buckets);
+            tick *= WHEEL_SIZE;
+        }
+    }
+
+
+    /**
+     * Places a lead on the wheel at its next follow-up time, replacing any earlier entry for it.
+     * Leads scheduled beyond the wheel's horizon are dropped and picked up by a later preload.
+     *
+     * @param lead The lead whose next follow-up should be tracked.
+     */
+    public void schedule(Lead lead) {
+        if (lead.getNextFollowUp() != null) schedule(lead.getId(), lead.getNextFollowUp());
+    }
+
+
+    /**
+     * Places a lead id on the wheel at the given time, replacing any earlier entry for it.
+     * A time that has already passed fires on the next {@link #advance}.
+     *
+     * @param leadId The id of the lead.
+     * @param dueAt  When the follow-up should fire.
+     */
+    public synchronized void schedule(int leadId, LocalDateTime dueAt) {
+        if (!enabled) return;
+
+        long dueMillis = toEpochMillis(dueAt);
+        if (currentTime < 0) currentTime = alignToTick(System.currentTimeMillis());
+
+        if (dueMillis - currentTime >= horizonMillis()) {
+            dueTimes.remove(leadId);
+            return;
+        }
+
+        dueTimes.put(leadId, dueMillis);
+        Entry entry = new Entry(leadId, dueMillis);
+        if (!insert(entry)) overdue.add(entry);
+    }
+
+
+    /**
+     * Removes a lead from the wheel, e.g. when it moves to a terminal stage.
+     *
+     * @param leadId The id of the lead.
+     */
+    public synchronized void cancel(int leadId) {
+        if (enabled) dueTimes.remove(leadId);
+    }
+
+
+    /**
+     * Advances the wheel to the given time and returns the ids of every lead that came due,
+     * skipping entries that were rescheduled or cancelled since they were added.
+     *
+     * @param now The current wall-clock time.
+     * @return Ids of the leads whose follow-up is now due.
+     */
+    public synchronized List<Integer> advance(LocalDateTime now) {
+        List<Integer> dueLeadIds = new ArrayList<>();
+        if (!enabled) return dueLeadIds;
+
+        long nowMillis = toEpochMillis(now);
+        if (currentTime < 0) currentTime = alignToTick(nowMillis);
+
+        List<Entry> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        while (currentTime + TICK_MILLIS <= nowMillis) {
+            currentTime += TICK_MILLIS;
+
+            // Cascade coarse levels first so entries land in the finer slots drained below.
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if (currentTime % levelTickMillis[level] == 0) {
+                    List<Entry> bucket = drain(level, slotFor(level, currentTime));
+                    bucket.forEach(entry -> { if (!insert(entry)) expired.add(entry); });
+                }
+            }
+            expired.addAll(drain(0, slotFor(0, currentTime)));
+        }
+
+        for (Entry entry : expired) {
+            Long due = dueTimes.get(entry.leadId());
+            if (due != null && due == entry.dueMillis()) {
+                dueTimes.remove(entry.leadId());
+                dueLeadIds.add(entry.leadId());
+            }
+        }
+        return dueLeadIds;
+    }
+
+
+    public synchronized int size() { return dueTimes.size(); }
+
+    public boolean isEnabled() { return enabled; }
+
+    public long horizonMillis() { return levelTickMillis[LEVELS - 1] * WHEEL_SIZE; }
+
+
+    /*
+     * Files an entry into the finest level whose span covers it. Entries already due are
+     * collected straight away; returns false so the caller can fire them.
+     */
+    private boolean insert(Entry entry) {
+        long delay = entry.dueMillis() - currentTime;
+        if (delay < TICK_MILLIS) {
+            if (entry.dueMillis() <= currentTime) return false;
+            levels.get(0).get(slotFor(0, currentTime + TICK_MILLIS)).add(entry);
+            return true;
+        }
+
+        for (int level = 0; level < LEVELS; level++) {
+            if (delay < levelTickMillis[level] * WHEEL_SIZE) {
+                levels.get(level).get(slotFor(level, entry.dueMillis())).add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry> drain(int level, int slot) {
+        List<Entry> bucket = levels.get(level).get(slot);
+        List<Entry> drained = new ArrayList<>(bucket);
+        bucket.clear();
+        return drained;
+    }
+
+    private int slotFor(int level, long timeMillis) {
+        return (int) ((timeMillis / levelTickMillis[level]) % WHEEL_SIZE);
+    }
+
+    private static long alignToTick(long timeMillis) { return timeMillis - (timeMillis % TICK_MILLIS); }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Entry(int leadId, long dueMillis) {}
+
+}
@@ -1,10 +1,16 @@
 package com.saleset.core.service.outreach.task;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saleset.core.dto.LeadScanCursor;
 import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.OutboundMessage;
 import com.saleset.core.enums.LeadStage;
 import com.saleset.core.service.outreach.Dispatcher;
+import com.saleset.core.service.outreach.OutreachBatchContext;
+import com.saleset.core.service.outreach.OutreachBatchLoader;
 import com.saleset.core.service.persistence.leads.LeadEngagementManager;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,16 +19,28 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * LeadOutreachTask is responsible for scheduling and executing follow-up communication tasks
  * for leads that are due for outreach. It runs on a fixed interval, scanning for leads ready
- * for contact and dispatching SMS follow-ups while updating their engagement state.
+ * for contact and queueing their SMS follow-ups and email alerts while updating their engagement state.
  * <p>
- * This service initializes a scheduled task using Spring's ThreadPoolTaskScheduler.
+ * This service initializes a scheduled task using Spring's ThreadPoolTaskScheduler. It never talks to
+ * Twilio or SendGrid itself: messages are written to the {@code outbound_messages} outbox in the same
+ * transaction as the engagement update and sent by {@link OutboundMessageRelay}.
+ * <p>
+ * With {@code task.dispatch.mode=wheel} the window scan is replaced by {@link FollowUpTimingWheel}:
+ * due leads are preloaded ahead of time and each one is claimed and dispatched at its exact
+ * next-follow-up time by a one-second ticker.
+ * <p>
+ * In both modes, leads whose follow-up time already slipped into the past (overrun, restart, deploy)
+ * are drained in bounded chunks behind a persisted scan watermark before new work is taken on.
  */
 @Service
 public class LeadOutreachTask {
@@ -30,15 +48,24 @@ public class LeadOutreachTask {
     private final Logger logger = LoggerFactory.getLogger(LeadOutreachTask.class);
 
     private final Dispatcher dispatcher;
+    private final OutreachBatchLoader batchLoader;
     private final LeadEngagementManager engagementManager;
     private final TaskConfig taskConfig;
+    private final FollowUpTimingWheel followUpWheel;
     private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
 
+    // Wheel mode fires leads one tick at a time, so one-send-per-contact is kept across a polling window instead.
+    private Set<Integer> recentlyContactedIds;
+
     @Autowired
-    public LeadOutreachTask(Dispatcher dispatcher, LeadEngagementManager engagementManager, TaskConfig taskConfig) {
+    public LeadOutreachTask(Dispatcher dispatcher, OutreachBatchLoader batchLoader,
+                            LeadEngagementManager engagementManager, TaskConfig taskConfig,
+                            FollowUpTimingWheel followUpWheel) {
         this.dispatcher = dispatcher;
+        this.batchLoader = batchLoader;
         this.engagementManager = engagementManager;
         this.taskConfig = taskConfig;
+        this.followUpWheel = followUpWheel;
     }
 
     /**
@@ -48,64 +75,217 @@ public class LeadOutreachTask {
     @PostConstruct
     public void init() {
         scheduler.initialize();
-        scheduler.scheduleAtFixedRate(this::runOutreachTask, Duration.ofMillis(taskConfig.getPollingIntervalMillis()));
+
+        if (taskConfig.isWheelDispatch()) {
+            recentlyContactedIds = Collections.newSetFromMap(Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMillis(taskConfig.getPollingIntervalMillis()))
+                    .<Integer, Boolean>build()
+                    .asMap());
+            scheduler.scheduleAtFixedRate(this::preloadWheel, Duration.ofMillis(taskConfig.getWheelPreloadIntervalMillis()));
+            scheduler.scheduleWithFixedDelay(this::fireDueLeads, Duration.ofSeconds(1));
+            scheduler.scheduleAtFixedRate(() -> runCatchUp(recentlyContactedIds),
+                    Duration.ofMillis(taskConfig.getPollingIntervalMillis()));
+        } else {
+            scheduler.scheduleAtFixedRate(this::runOutreachTask, Duration.ofMillis(taskConfig.getPollingIntervalMillis()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
     }
 
     /*
      * Executes the lead outreach task:
-     * - Retrieves leads due for follow-up within the configured time window.
+     * - Drains a bounded number of overdue catch-up chunks first (see runCatchUp).
+     * - Claims keyset-paginated pages of leads due within the configured time window, so that
+     *   several instances can run the task side by side without texting the same lead twice.
      * - Filters out any leads in excluded stages (e.g. DNC or Converted) as a safety check.
      * - Ensures each contact receives only one follow-up per run, even if tied to multiple leads.
-     * - Sends SMS follow-ups and email alerts via the Dispatcher.
-     * - Updates engagement metadata such as next-follow-up time, stage, and follow-up count.
+     * - Composes SMS follow-ups and email alerts via the Dispatcher.
+     * - Updates engagement metadata such as next-follow-up time, stage, and follow-up count, and
+     *   queues the composed messages in the outbox in the same transaction.
      */
     private void runOutreachTask() {
         LocalDateTime now = LocalDateTime.now();
-        logger.info("Task Executed: {}", now);
-
-        // 1) Fetch and log the raw list
-        List<Lead> leadList = engagementManager.scanForFollowUpLeads(taskConfig.getFollowUpWindowMinutes());
-        logger.info("→ {} leads returned for follow-up window of {} minutes",
-                leadList.size(), taskConfig.getFollowUpWindowMinutes());
-        leadList.forEach(lead ->
-                logger.debug("   • Lead[id={} contactId={} stage='{}' nextFollowUp={}]",
-                        lead.getId(), lead.getContactId(), lead.getCurrentStage(), lead.getNextFollowUp())
-        );
+        logger.info("Task Executed: {} (worker {})", now, taskConfig.getWorkerId());
+        long runStart = System.nanoTime();
 
         Set<Integer> contactedContactIds = new HashSet<>();
+        int dispatched = runCatchUp(contactedContactIds);
+
+        // Page through the window on (nextFollowUp, id) so memory stays flat however large the due set is.
+        LeadScanCursor cursor = new LeadScanCursor(now, 0);
+        LocalDateTime endTime = now.plusMinutes(taskConfig.getFollowUpWindowMinutes());
+
+        List<Lead> leadList;
+        while (!(leadList = engagementManager.claimFollowUpLeads(cursor, endTime)).isEmpty()) {
+            // Capture the keyset position before dispatch moves nextFollowUp forward.
+            cursor = LeadScanCursor.of(leadList.get(leadList.size() - 1));
+
+            // 1) Log the claimed page
+            logger.info("→ {} leads claimed for follow-up window of {} minutes",
+                    leadList.size(), taskConfig.getFollowUpWindowMinutes());
+            leadList.forEach(lead ->
+                    logger.debug("   • Lead[id={} contactId={} stage='{}' nextFollowUp={}]",
+                            lead.getId(), lead.getContactId(), lead.getCurrentStage(), lead.getNextFollowUp())
+            );
+
+            // 2) Belt & suspenders: drop excluded stages before dispatching
+            List<Lead> dispatchList = leadList.stream()
+                    .filter(lead -> !isExcludedStage(lead))
+                    .toList();
+
+            // 3) Log after filter how many remain
+            logger.debug("{} leads remain after exclusion filter", dispatchList.size());
+
+            dispatchBatch(dispatchList, contactedContactIds);
+            dispatched += dispatchList.size();
+        }
+
+        logger.info("Outreach run finished: {} leads in {} ms",
+                dispatched, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart));
+    }
+
+
+    /*
+     * Drains leads whose follow-up time is already in the past, oldest first, in chunks of
+     * task.catchUp.chunkSize and at most task.catchUp.chunksPerRun chunks per run, which bounds the
+     * catch-up rate after an outage. The scan watermark is advanced after every chunk, and moved up
+     * to the run's start time once the backlog is fully drained, but never past a lead still due.
+     *
+     * @return The number of leads dispatched.
+     */
+    private int runCatchUp(Set<Integer> contactedContactIds) {
+        LocalDateTime runStart = LocalDateTime.now();
+        int dispatched = 0;
+
+        try {
+            LeadScanCursor start = engagementManager.resolveCatchUpStart();
+            LeadScanCursor cursor = start;
+            boolean drained = false;
+
+            for (int chunk = 0; chunk < taskConfig.getCatchUpChunksPerRun(); chunk++) {
+                List<Lead> leadList = engagementManager.claimOverdueLeads(cursor, runStart);
+                if (leadList.isEmpty()) {
+                    drained = true;
+                    break;
+                }
+
+                // Capture the keyset position before dispatch moves nextFollowUp forward.
+                cursor = LeadScanCursor.of(leadList.get(leadList.size() - 1));
+                logger.info("→ Catch-up: {} overdue leads claimed (through {})", leadList.size(), cursor);
+
+                List<Lead> dispatchList = leadList.stream()
+                        .filter(lead -> !isExcludedStage(lead))
+                        .toList();
+                dispatchBatch(dispatchList, contactedContactIds);
+                dispatched += dispatchList.size();
+
+                engagementManager.advanceScanWatermark(start, cursor);
+                if (leadList.size() < taskConfig.getCatchUpChunkSize()) {
+                    drained = true;
+                    break;
+                }
+            }
+
+            if (drained) {
+                engagementManager.advanceScanWatermark(start, new LeadScanCursor(runStart, 0));
+            } else {
+                logger.warn("Catch-up backlog not drained this run; resuming after {}", cursor);
+            }
+        } catch (Exception ex) {
+            logger.error("Catch-up scan failed: {}", ex.getMessage(), ex);
+        }
+
+        return dispatched;
+    }
+
+
+    /*
+     * Loads the next few hours of due leads onto the timing wheel. Leads rescheduled in between
+     * are added by LeadEngagementManager as it updates them.
+     */
+    private void preloadWheel() {
+        try {
+            int loaded = engagementManager.preloadFollowUpWheel();
+            logger.info("Follow-up wheel preloaded with {} leads ({} tracked)", loaded, followUpWheel.size());
+        } catch (Exception ex) {
+            logger.error("Follow-up wheel preload failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+
+    /*
+     * Advances the timing wheel and dispatches whatever came due during the last tick.
+     */
+    private void fireDueLeads() {
+        try {
+            List<Integer> dueLeadIds = followUpWheel.advance(LocalDateTime.now());
+            if (dueLeadIds.isEmpty()) return;
+
+            List<Lead> dispatchList = engagementManager.claimFollowUpLeads(dueLeadIds).stream()
+                    .filter(lead -> !isExcludedStage(lead))
+                    .toList();
+            logger.info("→ {} of {} wheel-fired leads claimed", dispatchList.size(), dueLeadIds.size());
+
+            dispatchBatch(dispatchList, recentlyContactedIds);
+        } catch (Exception ex) {
+            logger.error("Follow-up wheel tick failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+
+    /*
+     * Prefetches contacts, addresses and market data for the whole batch, composes each lead's messages,
+     * then writes the engagement updates and outbox rows for the batch in bulk.
+     */
+    private void dispatchBatch(List<Lead> dispatchList, Set<Integer> contactedContactIds) {
+        if (dispatchList.isEmpty()) return;
+        OutreachBatchContext context = batchLoader.load(dispatchList);
+        List<Lead> dispatched = new ArrayList<>(dispatchList.size());
+        List<OutboundMessage> outbox = new ArrayList<>();
+
+        dispatchList.forEach(lead -> dispatchLead(lead, context, contactedContactIds, dispatched, outbox));
+
+        // 5) Always update the engagement metadata, batched for every lead that was handled
+        engagementManager.handleFollowUpExecution(dispatched, outbox);
+    }
+
+
+    /*
+     * Composes the SMS and email for a single lead. The contact set keeps the one-send-per-contact
+     * guarantee when several leads share a contact. Leads that were handled (messages composed, or
+     * skipped as a duplicate contact) are added to the dispatched list.
+     */
+    private void dispatchLead(Lead lead, OutreachBatchContext context, Set<Integer> contactedContactIds,
+                              List<Lead> dispatched, List<OutboundMessage> outbox) {
+        try {
+            // 4) Only one follow-up per contact
+            if (contactedContactIds.add(lead.getContactId())) {
+                logger.info("Queueing follow-up for Lead[id={} contactId={}]",
+                        lead.getId(), lead.getContactId());
+                dispatcher.composeSmsFollowUp(lead, context).ifPresent(outbox::add);
+                dispatcher.composeFollowUpEmail(lead, context).ifPresent(outbox::add);
+            } else {
+                logger.debug("Already dispatched for contactId={} — skipping SMS & email for Lead[id={}]",
+                        lead.getContactId(), lead.getId());
+            }
+            dispatched.add(lead);
+        } catch (Exception ex) {
+            logger.error("Follow-up dispatch failed for Lead[id={}]: {}", lead.getId(), ex.getMessage(), ex);
+        }
+    }
+
 
-        leadList.stream()
-                // 2) Belt & suspenders: log each before checking exclusion
-                .peek(lead -> logger.debug("Checking exclusion for Lead[id={} stage='{}']",
-                        lead.getId(), lead.getCurrentStage()))
-                .filter(lead -> {
-                    String rawStage = lead.getCurrentStage();
-                    String stage = (rawStage != null ? rawStage.trim() : "");
-                    boolean isExcluded = EXCLUDED_STAGES.contains(stage);
-                    if (isExcluded) {
-                        logger.info("→ Skipping excluded-stage Lead[id={} stage='{}']", lead.getId(), stage);
-                    }
-                    return !isExcluded;
-                })
-                // 3) Log after filter how many remain
-                .peek(lead -> logger.debug("Proceeding with Lead[id={} stage='{}']",
-                        lead.getId(), lead.getCurrentStage()))
-                .forEach(lead -> {
-                    // 4) Only one follow-up per contact
-                    if (contactedContactIds.add(lead.getContactId())) {
-                        logger.info("Dispatching follow-up for Lead[id={} contactId={}]",
-                                lead.getId(), lead.getContactId());
-                        dispatcher.executeSmsFollowUp(lead);
-                        dispatcher.executeFollowUpEmail(lead);
-                    } else {
-                        logger.debug("Already dispatched for contactId={} — skipping SMS & email for Lead[id={}]",
-                                lead.getContactId(), lead.getId());
-                    }
-
-                    // 5) Always update the engagement metadata
-                    logger.debug("Updating engagement metadata for Lead[id={}]", lead.getId());
-                    engagementManager.handleFollowUpExecution(lead);
-                });
+    private boolean isExcludedStage(Lead lead) {
+        String rawStage = lead.getCurrentStage();
+        String stage = (rawStage != null ? rawStage.trim() : "");
+        boolean isExcluded = EXCLUDED_STAGES.contains(stage);
+        if (isExcluded) {
+            logger.info("→ Skipping excluded-stage Lead[id={} stage='{}']", lead.getId(), stage);
+        }
+        return isExcluded;
     }
 
     private static final Set<String> EXCLUDED_STAGES = Set.of(
@@ -0,0 +1,277 @@
+package com.saleset.core.service.outreach.task;
+
+import com.saleset.core.dao.LeadRepo;
+import com.saleset.core.dao.OutboundMessageRepo;
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Contact;
+import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.OutboundMessage;
+import com.saleset.core.enums.LeadStage;
+import com.saleset.core.enums.OutboundChannel;
+import com.saleset.core.enums.OutboundStatus;
+import com.saleset.core.service.outreach.OutreachBatchContext;
+import com.saleset.core.service.outreach.OutreachBatchLoader;
+import com.saleset.integration.sendgrid.SendGridManager;
+import com.saleset.integration.twilio.service.SmsSendQueue;
+import com.saleset.integration.twilio.service.TwilioManager;
+import com.twilio.rest.api.v2010.account.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OutboundMessageRelay drains the {@code outbound_messages} outbox that {@link LeadOutreachTask} fills,
+ * so slow or failing providers never hold up the follow-up scan.
+ * <p>
+ * Every {@code outbox.relay.pollMillis} it claims batches of due messages with {@code FOR UPDATE SKIP LOCKED},
+ * so any number of instances can relay side by side, and sends them through {@link SmsSendQueue} and
+ * {@link SendGridManager}, serially or on a pool of {@code task.dispatch.concurrency} workers.
+ * Failed sends are retried with exponential backoff and marked FAILED after {@code outbox.relay.maxAttempts}.
+ * SMS that Twilio rejects permanently (invalid, unreachable or unsubscribed numbers) are marked FAILED at once.
+ * Messages whose lead has since moved to an excluded stage (DNC, CONVERTED) are CANCELLED instead of sent.
+ * <p>
+ * Each outcome is written as soon as its message is sent, and messages still unsent when the batch's
+ * claim ({@code outbox.relay.leaseSeconds}) runs out are left for the next claim rather than sent late.
+ * An SMS waits for its sender's pacing token for at most the time left on the claim, so it is never
+ * sent after another relay may have claimed it again.
+ * Delivery is still at-least-once: if an instance dies between a provider accepting a message and its
+ * outcome being written, the message is sent again once its claim lapses.
+ */
+@Service
+public class OutboundMessageRelay {
+
+    private final Logger logger = LoggerFactory.getLogger(OutboundMessageRelay.class);
+
+    private final OutboundMessageRepo outboundMessageRepo;
+    private final LeadRepo leadRepo;
+    private final OutreachBatchLoader batchLoader;
+    private final SmsSendQueue smsSendQueue;
+    private final SendGridManager sendGridManager;
+    private final TaskConfig taskConfig;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private ExecutorService relayExecutor;
+
+    @Autowired
+    public OutboundMessageRelay(OutboundMessageRepo outboundMessageRepo, LeadRepo leadRepo,
+                                OutreachBatchLoader batchLoader, SmsSendQueue smsSendQueue,
+                                SendGridManager sendGridManager, TaskConfig taskConfig) {
+        this.outboundMessageRepo = outboundMessageRepo;
+        this.leadRepo = leadRepo;
+        this.batchLoader = batchLoader;
+        this.smsSendQueue = smsSendQueue;
+        this.sendGridManager = sendGridManager;
+        this.taskConfig = taskConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!taskConfig.isRelayEnabled()) {
+            logger.info("Outbox relay disabled on this instance");
+            return;
+        }
+
+        if (taskConfig.isParallelDispatch()) {
+            relayExecutor = Executors.newFixedThreadPool(taskConfig.getDispatchConcurrency(),
+                    new CustomizableThreadFactory("outbox-relay-"));
+        }
+
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::relayPendingMessages, Duration.ofMillis(taskConfig.getRelayPollMillis()));
+    }
+
+    /**
+     * Stops the scheduler and lets any in-flight sends finish before shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        if (relayExecutor != null) {
+            relayExecutor.shutdown();
+            try {
+                if (!relayExecutor.awaitTermination(30, TimeUnit.SECONDS)) relayExecutor.shutdownNow();
+            } catch (InterruptedException ex) {
+                relayExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /*
+     * Claims and sends batches until no due message is left. Logs each batch's wall-clock time next
+     * to the summed per-message time.
+     */
+    private void relayPendingMessages() {
+        try {
+            List<OutboundMessage> batch;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime leaseUntil = now.plusSeconds(taskConfig.getRelayLeaseSeconds());
+                batch = outboundMessageRepo.claimPendingMessages(now, leaseUntil, taskConfig.getRelayBatchSize());
+                if (batch.isEmpty()) return;
+
+                relayBatch(batch, leaseUntil);
+            } while (batch.size() == taskConfig.getRelayBatchSize());
+        } catch (Exception ex) {
+            logger.error("Outbox relay run failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+
+    private void relayBatch(List<OutboundMessage> batch, LocalDateTime leaseUntil) {
+        long batchStart = System.nanoTime();
+        LongAdder messageNanos = new LongAdder();
+
+        // Every message's lead is reloaded so stage changes since queueing are honoured; emails are also
+        // rendered from the current contact and address, prefetched for the whole batch.
+        List<Integer> leadIds = batch.stream().map(OutboundMessage::getLeadId).distinct().toList();
+        Map<Integer, Lead> leads = leadRepo.findLeadsByIds(leadIds).stream()
+                .collect(Collectors.toMap(Lead::getId, Function.identity()));
+        OutreachBatchContext context = batchLoader.load(batch.stream()
+                .filter(message -> OutboundChannel.EMAIL.toString().equals(message.getChannel()))
+                .map(message -> leads.get(message.getLeadId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        if (relayExecutor == null) {
+            batch.forEach(message -> relayMessage(message, leads, context, leaseUntil, messageNanos));
+        } else {
+            CompletableFuture.allOf(batch.stream()
+                    .map(message -> CompletableFuture.runAsync(
+                            () -> relayMessage(message, leads, context, leaseUntil, messageNanos), relayExecutor))
+                    .toArray(CompletableFuture[]::new)
+            ).join();
+        }
+
+        Map<String, Long> outcomes = batch.stream()
+                .collect(Collectors.groupingBy(OutboundMessage::getStatus, Collectors.counting()));
+        logger.info("Outbox relay batch: {} messages {} in {} ms wall-clock ({} ms serial equivalent, concurrency={})",
+                batch.size(), outcomes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStart),
+                TimeUnit.NANOSECONDS.toMillis(messageNanos.sum()), taskConfig.getDispatchConcurrency());
+    }
+
+
+    /*
+     * Sends one message and writes the outcome straight away: SENT with the provider id, PENDING with the
+     * next attempt pushed out by the backoff, FAILED once the attempts are used up, or CANCELLED if the
+     * lead is gone or in an excluded stage. A message reached after the claim has lapsed, or whose SMS
+     * token would only come after it lapses, is left as claimed, so it is picked up again instead of
+     * racing another relay.
+     */
+    private void relayMessage(OutboundMessage message, Map<Integer, Lead> leads, OutreachBatchContext context,
+                              LocalDateTime leaseUntil, LongAdder messageNanos) {
+        if (!LocalDateTime.now().isBefore(leaseUntil)) {
+            logClaimLapsed(message);
+            return;
+        }
+
+        Lead lead = leads.get(message.getLeadId());
+        if (lead == null || EXCLUDED_STAGES.contains(lead.getCurrentStage())) {
+            cancel(message, lead == null ? "Lead not found" : "Lead stage is " + lead.getCurrentStage());
+            outboundMessageRepo.saveOutcome(message);
+            return;
+        }
+
+        long start = System.nanoTime();
+        message.setAttempts(message.getAttempts() + 1);
+        try {
+            String providerMessageId = switch (OutboundChannel.fromString(message.getChannel())) {
+                case SMS -> sendSms(message, leaseUntil);
+                case EMAIL -> sendEmail(message, lead, context);
+            };
+            message.setStatus(OutboundStatus.SENT.toString());
+            message.setProviderMessageId(providerMessageId);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (ClaimLapsedException ex) {
+            logClaimLapsed(message);
+            return;
+        } catch (Exception ex) {
+            recordFailure(message, ex);
+        } finally {
+            messageNanos.add(System.nanoTime() - start);
+        }
+        outboundMessageRepo.saveOutcome(message);
+    }
+
+    private String sendSms(OutboundMessage message, LocalDateTime leaseUntil) {
+        Duration remainingClaim = Duration.between(LocalDateTime.now(), leaseUntil);
+        Message sms = smsSendQueue.send(message.getFromNumber(), message.getToAddress(), message.getBody(), remainingClaim)
+                .orElseThrow(ClaimLapsedException::new);
+        logger.info("Message attempted for Lead: {} -> Response Status: {}", message.getLeadId(), sms.getStatus());
+        return sms.getSid();
+    }
+
+    private String sendEmail(OutboundMessage message, Lead lead, OutreachBatchContext context) {
+        Contact contact = context.contactFor(lead)
+                .orElseThrow(() -> new IllegalStateException("Contact not found: " + lead.getContactId()));
+        Address address = context.addressFor(lead).orElse(new Address());
+
+        if (sendGridManager.sendFollowUpCallAlert(lead, contact, address) == null) {
+            throw new IllegalStateException("SendGrid rejected the follow-up call alert");
+        }
+        return null;
+    }
+
+    private void logClaimLapsed(OutboundMessage message) {
+        logger.warn("Claim on {} message {} for Lead[id={}] lapses before it can be sent, leaving it for the next run",
+                message.getChannel(), message.getId(), message.getLeadId());
+    }
+
+    private void cancel(OutboundMessage message, String reason) {
+        message.setStatus(OutboundStatus.CANCELLED.toString());
+        message.setLastError(reason);
+        logger.info("Cancelled {} message {} for Lead[id={}]: {}",
+                message.getChannel(), message.getId(), message.getLeadId(), reason);
+    }
+
+    private void recordFailure(OutboundMessage message, Exception ex) {
+        message.setLastError(ex.getMessage());
+        if (TwilioManager.isPermanentSmsFailure(ex)) {
+            message.setStatus(OutboundStatus.FAILED.toString());
+            logger.error("{} message {} for Lead[id={}] rejected permanently, not retrying --- Message: {}",
+                    message.getChannel(), message.getId(), message.getLeadId(), ex.getMessage());
+        } else if (message.getAttempts() >= taskConfig.getRelayMaxAttempts()) {
+            message.setStatus(OutboundStatus.FAILED.toString());
+            logger.error("Giving up on {} message {} for Lead[id={}] after {} attempts --- Message: {}",
+                    message.getChannel(), message.getId(), message.getLeadId(), message.getAttempts(), ex.getMessage());
+        } else {
+            long backoffSeconds = taskConfig.getRelayBackoffSeconds(message.getAttempts());
+            message.setStatus(OutboundStatus.PENDING.toString());
+            message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+            logger.warn("{} message {} for Lead[id={}] failed (attempt {}), retrying in {} s --- Message: {}",
+                    message.getChannel(), message.getId(), message.getLeadId(), message.getAttempts(),
+                    backoffSeconds, ex.getMessage());
+        }
+    }
+
+    private static final Set<String> EXCLUDED_STAGES = Set.of(
+            LeadStage.DNC.toString(),
+            LeadStage.CONVERTED.toString()
+    );
+
+    // Thrown when a message's claim runs out before it can be sent; the message is left unsent and unsaved.
+    private static final class ClaimLapsedException extends RuntimeException {
+    }
+
+}
@@ -3,14 +3,112 @@ package com.saleset.core.service.outreach.task;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 public class TaskConfig {
 
     @Value("${task.followUpWindowMinutes}")
     private int followUpWindowMinutes;
 
+    @Value("${task.dispatch.concurrency:1}")
+    private int dispatchConcurrency;
+
+    @Value("${task.dispatch.mode:poll}")
+    private String dispatchMode;
+
+    @Value("${task.wheel.horizonHours:3}")
+    private int wheelHorizonHours;
+
+    @Value("${task.wheel.preloadIntervalMinutes:15}")
+    private int wheelPreloadIntervalMinutes;
+
+    @Value("${task.claim.batchSize:200}")
+    private int claimBatchSize;
+
+    @Value("${task.claim.leaseSeconds:600}")
+    private int claimLeaseSeconds;
+
+    @Value("${task.engagement.writeBatchSize:100}")
+    private int engagementWriteBatchSize;
+
+    @Value("${task.catchUp.chunkSize:100}")
+    private int catchUpChunkSize;
+
+    @Value("${task.catchUp.chunksPerRun:5}")
+    private int catchUpChunksPerRun;
+
+    @Value("${task.catchUp.initialLookbackHours:72}")
+    private int catchUpInitialLookbackHours;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${outbox.relay.pollMillis:2000}")
+    private long relayPollMillis;
+
+    @Value("${outbox.relay.batchSize:50}")
+    private int relayBatchSize;
+
+    @Value("${outbox.relay.leaseSeconds:300}")
+    private int relayLeaseSeconds;
+
+    @Value("${outbox.relay.maxAttempts:6}")
+    private int relayMaxAttempts;
+
+    @Value("${outbox.relay.backoffSeconds:30}")
+    private int relayBackoffSeconds;
+
+    @Value("${outbox.relay.maxBackoffSeconds:3600}")
+    private int relayMaxBackoffSeconds;
+
+    // Heroku exposes the dyno name as DYNO; a random suffix keeps restarted dynos distinct.
+    private final String workerId = System.getenv().getOrDefault("DYNO", "local") + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
     public int getFollowUpWindowMinutes() { return followUpWindowMinutes; }
 
     public long getPollingIntervalMillis() { return followUpWindowMinutes * 60 * 1000L; }
 
+    public int getDispatchConcurrency() { return Math.max(1, dispatchConcurrency); }
+
+    public boolean isParallelDispatch() { return getDispatchConcurrency() > 1; }
+
+    // "poll" scans every window; "wheel" fires each lead at its exact time from FollowUpTimingWheel
+    public boolean isWheelDispatch() { return "wheel".equalsIgnoreCase(dispatchMode); }
+
+    public int getWheelHorizonHours() { return wheelHorizonHours; }
+
+    public long getWheelPreloadIntervalMillis() { return wheelPreloadIntervalMinutes * 60 * 1000L; }
+
+    public int getClaimBatchSize() { return claimBatchSize; }
+
+    public int getClaimLeaseSeconds() { return claimLeaseSeconds; }
+
+    public int getEngagementWriteBatchSize() { return Math.max(1, engagementWriteBatchSize); }
+
+    public int getCatchUpChunkSize() { return catchUpChunkSize; }
+
+    public int getCatchUpChunksPerRun() { return catchUpChunksPerRun; }
+
+    public int getCatchUpInitialLookbackHours() { return catchUpInitialLookbackHours; }
+
+    public boolean isRelayEnabled() { return relayEnabled; }
+
+    public long getRelayPollMillis() { return relayPollMillis; }
+
+    public int getRelayBatchSize() { return Math.max(1, relayBatchSize); }
+
+    public int getRelayLeaseSeconds() { return relayLeaseSeconds; }
+
+    public int getRelayMaxAttempts() { return Math.max(1, relayMaxAttempts); }
+
+    // Exponential backoff after the given number of failed attempts, capped at outbox.relay.maxBackoffSeconds
+    public long getRelayBackoffSeconds(int attempts) {
+        long backoff = (long) relayBackoffSeconds << Math.min(Math.max(0, attempts - 1), 20);
+        return Math.min(backoff, relayMaxBackoffSeconds);
+    }
+
+    public String getWorkerId() { return workerId; }
+
 }
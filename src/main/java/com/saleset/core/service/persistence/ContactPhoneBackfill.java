@@ -0,0 +1,73 @@
+package com.saleset.core.service.persistence;
+
+import com.saleset.core.dao.ContactRepo;
+import com.saleset.core.dao.JobRunRepo;
+import com.saleset.core.entities.JobRun;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Populates {@code contact_phones} from existing contacts once the application is up. Contacts are
+ * processed in id ranges of {@code contacts.phoneBackfill.chunkSize}, one transaction each, and already
+ * registered numbers are skipped, so the backfill can be re-run safely.
+ * <p>
+ * Completion is recorded in the {@code contact_phones_backfill} row of {@code job_runs}, with the highest
+ * contact id covered as its version. After that, {@link ContactRepo#findContactByPhone} stops falling
+ * back to the {@code contacts} table, and instances starting later skip the backfill. Contacts inserted while it runs register their own
+ * numbers through {@link ContactRepo#safeInsert}.
+ */
+@Component
+public class ContactPhoneBackfill {
+
+    private final Logger logger = LoggerFactory.getLogger(ContactPhoneBackfill.class);
+
+    private static final String BACKFILL_JOB = "contact_phones_backfill";
+
+    private final ContactRepo contactRepo;
+    private final JobRunRepo jobRunRepo;
+
+    @Value("${contacts.phoneBackfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${contacts.phoneBackfill.chunkSize:10000}")
+    private int chunkSize;
+
+    @Autowired
+    public ContactPhoneBackfill(ContactRepo contactRepo, JobRunRepo jobRunRepo) {
+        this.contactRepo = contactRepo;
+        this.jobRunRepo = jobRunRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (jobRunRepo.findByName(BACKFILL_JOB).filter(JobRun::isCompleted).isPresent()) {
+            contactRepo.markPhoneTableComplete();
+            return;
+        }
+        if (!enabled) {
+            logger.warn("Contact phone backfill disabled and not yet completed; phone lookups fall back to contacts");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int maxId = contactRepo.findMaxContactId();
+        int added = 0;
+
+        for (int fromId = 0; fromId <= maxId; fromId += chunkSize) {
+            added += contactRepo.backfillContactPhones(fromId, fromId + chunkSize);
+        }
+
+        if (jobRunRepo.markCompleted(BACKFILL_JOB, maxId)) {
+            contactRepo.markPhoneTableComplete();
+        }
+
+        logger.info("Contact phone backfill registered {} numbers for contacts up to id {} in {} ms",
+                added, maxId, System.currentTimeMillis() - start);
+    }
+
+}
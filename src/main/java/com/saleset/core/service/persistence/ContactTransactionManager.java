@@ -3,6 +3,7 @@ package com.saleset.core.service.persistence;
 import com.saleset.core.dao.ContactRepo;
 import com.saleset.core.dto.request.LeadRequest;
 import com.saleset.core.entities.Contact;
+import com.saleset.core.service.cache.KnownPhoneFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,14 +16,31 @@ public class ContactTransactionManager {
 
     private final Logger logger = LoggerFactory.getLogger(ContactTransactionManager.class);
     private final ContactRepo contactRepo;
+    private final KnownPhoneFilter knownPhoneFilter;
 
     @Autowired
-    public ContactTransactionManager(ContactRepo contactRepo) {
+    public ContactTransactionManager(ContactRepo contactRepo, KnownPhoneFilter knownPhoneFilter) {
         this.contactRepo = contactRepo;
+        this.knownPhoneFilter = knownPhoneFilter;
     }
 
+    /**
+     * Finds the existing contact for the lead's phone numbers. When the known-phone filter has never
+     * seen the numbers, the filter may simply be behind (e.g. on a contact another instance just
+     * inserted), so the answer is confirmed with an index-only {@code contact_phones} check and only
+     * the contact lookup itself is skipped. Until the {@code contact_phones} backfill has completed,
+     * the full lookup always runs.
+     */
     public Optional<Contact> findByPhone(LeadRequest leadData) {
-        return contactRepo.findContactByPhone(leadData);
+        boolean neverSeen = !knownPhoneFilter.mightBeKnown(leadData.getPrimaryPhone(), leadData.getSecondaryPhone());
+        if (neverSeen && contactRepo.isPhoneTableComplete() && !contactRepo.isAnyPhoneRegistered(leadData)) {
+            logger.debug("Phones never seen before, skipping contact lookup for lead data: {}", leadData);
+            return Optional.empty();
+        }
+
+        Optional<Contact> contact = contactRepo.findContactByPhone(leadData);
+        if (neverSeen) contact.ifPresent(knownPhoneFilter::recordFalseNegative);
+        return contact;
     }
 
     public Contact insertContact(LeadRequest leadData) {
@@ -32,6 +50,7 @@ public class ContactTransactionManager {
             return null;
         }
         Contact contact = optContact.get();
+        knownPhoneFilter.add(contact);
         logger.info("Contact inserted successfully: {}", contact);
         return contact;
     }
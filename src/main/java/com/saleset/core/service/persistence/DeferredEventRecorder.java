@@ -0,0 +1,112 @@
+package com.saleset.core.service.persistence;
+
+import com.saleset.core.dao.LeadRepo;
+import com.saleset.core.dto.EventRecorderStats;
+import com.saleset.core.dto.LeadRoute;
+import com.saleset.core.dto.request.EventRequest;
+import com.saleset.core.enums.EventSource;
+import com.saleset.core.service.persistence.leads.LeadEngagementManager;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records tracking events off the request thread, so webhook endpoints such as the {@code /go}
+ * click redirect can answer before any event is stored.
+ * <p>
+ * Each event is stamped with the time it was received, then queued for a small pool of
+ * {@code events.recorder.threads} workers that dedup and insert it and recompute the lead's
+ * engagement. The queue holds at most {@code events.recorder.queueCapacity} events; beyond that,
+ * events are dropped and counted rather than slowing the caller down. Queued events are drained
+ * for up to {@code events.recorder.shutdownSeconds} on shutdown.
+ */
+@Service
+public class DeferredEventRecorder {
+
+    private final Logger logger = LoggerFactory.getLogger(DeferredEventRecorder.class);
+
+    private final EventTransactionManager eventTransactionManager;
+    private final LeadEngagementManager leadEngagementManager;
+    private final LeadRepo leadRepo;
+    private final ThreadPoolExecutor executor;
+    private final long shutdownSeconds;
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public DeferredEventRecorder(EventTransactionManager eventTransactionManager,
+                                 LeadEngagementManager leadEngagementManager, LeadRepo leadRepo,
+                                 @Value("${events.recorder.threads:2}") int threads,
+                                 @Value("${events.recorder.queueCapacity:10000}") int queueCapacity,
+                                 @Value("${events.recorder.shutdownSeconds:10}") long shutdownSeconds) {
+        this.eventTransactionManager = eventTransactionManager;
+        this.leadEngagementManager = leadEngagementManager;
+        this.leadRepo = leadRepo;
+        this.shutdownSeconds = shutdownSeconds;
+        this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("event-recorder-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownSeconds, TimeUnit.SECONDS)) {
+            logger.warn("Event recorder stopped with {} events still queued", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Queues an event for recording and returns immediately.
+     *
+     * @param eventData   The event; its occurrence time is set to now if not already set.
+     * @param eventSource Where the event came from.
+     * @return {@code false} if the queue was full and the event was dropped.
+     */
+    public boolean submit(EventRequest eventData, EventSource eventSource) {
+        if (eventData.getOccurredAt() == null) eventData.setOccurredAt(LocalDateTime.now());
+
+        try {
+            executor.execute(() -> record(eventData, eventSource));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            dropped.increment();
+            logger.warn("Event queue full, dropped {} event for Lead UUID: {} ({} dropped so far)",
+                    eventData.getEvent(), eventData.getLeadUUID(), dropped.sum());
+            return false;
+        }
+    }
+
+    public EventRecorderStats getStats() { return new EventRecorderStats(executor.getQueue().size(), dropped.sum()); }
+
+
+    /*
+     * Stores the event and, for leads with an address, recomputes their engagement schedule.
+     */
+    private void record(EventRequest eventData, EventSource eventSource) {
+        try {
+            // The route is cached by the insert, so only leads with an address are read in full.
+            eventTransactionManager.insertEventHandler(eventData, eventSource)
+                    .flatMap(event -> leadRepo.findLeadRouteByUUID(eventData.getLeadUUID()))
+                    .filter(LeadRoute::hasAddress)
+                    .flatMap(route -> leadRepo.findLeadById(route.leadId()))
+                    .ifPresent(leadEngagementManager::updateEngagementOnLeadEvent);
+        } catch (Exception ex) {
+            logger.error("Failed to record {} event for Lead UUID: {} --- Message: {}",
+                    eventData.getEvent(), eventData.getLeadUUID(), ex.getMessage());
+        }
+    }
+
+}
@@ -2,11 +2,11 @@ package com.saleset.core.service.persistence;
 
 import com.saleset.core.dao.EventRepo;
 import com.saleset.core.dao.LeadRepo;
+import com.saleset.core.dto.LeadRoute;
 import com.saleset.core.dto.request.EventRequest;
 import com.saleset.core.entities.Event;
-import com.saleset.core.entities.Lead;
 import com.saleset.core.enums.EventSource;
-import com.saleset.core.service.cache.EventCacheManager;
+import com.saleset.core.service.cache.EventDeduplicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +20,11 @@ public class EventTransactionManager {
     private final Logger logger = LoggerFactory.getLogger(EventTransactionManager.class);
 
     private final EventRepo eventRepo;
-    private final EventCacheManager cacheManager;
+    private final EventDeduplicator cacheManager;
     private final LeadRepo leadRepo;
 
     @Autowired
-    public EventTransactionManager(EventRepo eventRepo, EventCacheManager cacheManager, LeadRepo leadRepo) {
+    public EventTransactionManager(EventRepo eventRepo, EventDeduplicator cacheManager, LeadRepo leadRepo) {
         this.eventRepo = eventRepo;
         this.cacheManager = cacheManager;
         this.leadRepo = leadRepo;
@@ -36,8 +36,9 @@ public class EventTransactionManager {
      * This method first checks if the event data is insertable using the cache manager. If not,
      * it returns an empty {@code Optional}. If the event is insertable, it attempts to retrieve
      * the associated lead using its UUID. If the lead exists, a new event is created and inserted
-     * into the repository. If insertion succeeds, the inserted event is returned; otherwise,
-     * an error is logged and an empty {@code Optional} is returned.
+     * into the repository, which drops it if another node already stored the same event in the
+     * current dedup bucket. If insertion succeeds, the inserted event is returned; otherwise,
+     * an empty {@code Optional} is returned.
      * </p>
      *
      * @param eventData The event data transfer object containing event details.
@@ -47,10 +48,10 @@ public class EventTransactionManager {
         boolean isInsertable = cacheManager.cacheEvent(eventData);
         if (!isInsertable) return Optional.empty();
 
-        Optional<Lead> optLead = leadRepo.findLeadByUUID(eventData.getLeadUUID());
-        if (optLead.isPresent()) {
-            Event event = new Event(optLead.get(), eventData, eventSource);
-            Optional<Event> optEvent = eventRepo.safeInsert(event);
+        Optional<LeadRoute> optRoute = leadRepo.findLeadRouteByUUID(eventData.getLeadUUID());
+        if (optRoute.isPresent()) {
+            Event event = new Event(optRoute.get().leadId(), eventData, eventSource);
+            Optional<Event> optEvent = eventRepo.insertIfAbsent(event);
             if (optEvent.isPresent()) {
                 logger.info("Event inserted successfully: {}", optEvent.get());
                 return optEvent;
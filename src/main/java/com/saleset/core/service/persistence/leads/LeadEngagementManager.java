@@ -1,13 +1,21 @@
 package com.saleset.core.service.persistence.leads;
 
 import com.saleset.core.dao.EventRepo;
+import com.saleset.core.dao.LeadBatchWriter;
 import com.saleset.core.dao.LeadRepo;
+import com.saleset.core.dao.ScanWatermarkRepo;
+import com.saleset.core.dto.LeadRoute;
+import com.saleset.core.dto.LeadScanCursor;
 import com.saleset.core.dto.request.LeadRequest;
 import com.saleset.core.entities.Address;
 import com.saleset.core.entities.Event;
 import com.saleset.core.entities.Lead;
+import com.saleset.core.entities.OutboundMessage;
+import com.saleset.core.entities.ScanWatermark;
 import com.saleset.core.enums.LeadStage;
 import com.saleset.core.service.engine.EngagementEngineImpl;
+import com.saleset.core.service.outreach.task.FollowUpTimingWheel;
+import com.saleset.core.service.outreach.task.TaskConfig;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +26,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Handles engagement-related operations for leads, including resumption logic,
@@ -26,7 +36,7 @@ import java.util.Optional;
  * <p>
  * This service is responsible for:
  * <ul>
- *   <li>Identifying leads ready for follow-up within a given time window</li>
+ *   <li>Claiming leads ready for follow-up within a given time window</li>
  *   <li>Resuming engagement for re-entering leads based on matching address or context</li>
  *   <li>Updating lead follow-up schedules and stage prioritization</li>
  * </ul>
@@ -42,30 +52,140 @@ public class LeadEngagementManager implements LeadWorkflowManager {
     private final LeadRepo leadRepo;
     private final EngagementEngineImpl engagementEngine;
     private final EventRepo eventRepo;
+    private final TaskConfig taskConfig;
+    private final FollowUpTimingWheel followUpWheel;
+    private final ScanWatermarkRepo watermarkRepo;
+    private final LeadBatchWriter leadBatchWriter;
 
     @Autowired
-    public LeadEngagementManager(LeadRepo leadRepo, EngagementEngineImpl engagementEngine, EventRepo eventRepo) {
+    public LeadEngagementManager(LeadRepo leadRepo, EngagementEngineImpl engagementEngine, EventRepo eventRepo,
+                                 TaskConfig taskConfig, FollowUpTimingWheel followUpWheel,
+                                 ScanWatermarkRepo watermarkRepo, LeadBatchWriter leadBatchWriter) {
         this.leadRepo = leadRepo;
         this.engagementEngine = engagementEngine;
         this.eventRepo = eventRepo;
+        this.taskConfig = taskConfig;
+        this.followUpWheel = followUpWheel;
+        this.watermarkRepo = watermarkRepo;
+        this.leadBatchWriter = leadBatchWriter;
     }
 
 
     /**
-     * Scans for leads that are due for follow-up within the given time window.
-     * Excludes leads in terminal stages like DNC and CONVERTED.
+     * Claims the next page of leads that are due for follow-up up to the given window end.
+     * Excludes leads in terminal stages like DNC and CONVERTED, and leads currently leased by
+     * another outreach worker. Claimed leads stay leased to this worker until
+     * {@link #handleFollowUpExecution(List, List)} releases them or the lease expires.
+     * <p>
+     * Callers page through the window by passing the cursor of the last lead of the previous page,
+     * starting from {@code (windowStart, 0)}.
      *
-     * @param timeWindowMinutes The number of minutes into the future to look for eligible leads.
-     * @return List of leads ready for follow-up within the time window.
+     * @param after   Keyset position to resume after.
+     * @param endTime The end of the follow-up window.
+     * @return Up to {@code task.claim.batchSize} claimed leads, or an empty list once the window is exhausted.
      */
     @Transactional
-    public List<Lead> scanForFollowUpLeads(int timeWindowMinutes) {
+    public List<Lead> claimFollowUpLeads(LeadScanCursor after, LocalDateTime endTime) {
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().plusSeconds(taskConfig.getClaimLeaseSeconds());
+
+        return leadRepo.claimLeadsReadyForFollowUp(after, endTime, EXCLUDED_STAGES,
+                taskConfig.getWorkerId(), leaseExpiresAt, taskConfig.getClaimBatchSize());
+    }
+
+
+    /**
+     * Claims leads fired by the follow-up timing wheel. Leads that another instance already
+     * handled or rescheduled are no longer due and are skipped by the claim.
+     *
+     * @param leadIds Ids of the leads the wheel reported as due.
+     * @return The leads this worker now holds a lease on.
+     */
+    @Transactional
+    public List<Lead> claimFollowUpLeads(List<Integer> leadIds) {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime endTime = now.plusMinutes(timeWindowMinutes);
+        LocalDateTime leaseExpiresAt = now.plusSeconds(taskConfig.getClaimLeaseSeconds());
+
+        return leadRepo.claimLeadsByIds(leadIds, now, now.plusMinutes(1), EXCLUDED_STAGES,
+                taskConfig.getWorkerId(), leaseExpiresAt);
+    }
 
-        List<String> excludedStages = List.of(LeadStage.DNC.toString(), LeadStage.CONVERTED.toString());
 
-        return leadRepo.findLeadsReadyForFollowUp(now, endTime, excludedStages);
+    /**
+     * Determines where the overdue catch-up scan should resume: the persisted watermark, which never
+     * moves past a lead that is still due (see {@link #advanceScanWatermark}). Without a watermark, the
+     * scan starts {@code task.catchUp.initialLookbackHours} back.
+     *
+     * @return The keyset position to resume the catch-up scan after.
+     */
+    public LeadScanCursor resolveCatchUpStart() {
+        return watermarkRepo.findByName(FOLLOW_UP_WATERMARK)
+                .map(ScanWatermark::toCursor)
+                .orElseGet(() -> new LeadScanCursor(
+                        LocalDateTime.now().minusHours(taskConfig.getCatchUpInitialLookbackHours()), 0));
+    }
+
+
+    /**
+     * Claims the next chunk of overdue leads after the given keyset position.
+     *
+     * @param after  Keyset position to resume after.
+     * @param before Upper bound; leads due from here on belong to the regular window scan.
+     * @return Up to {@code task.catchUp.chunkSize} claimed leads in {@code (nextFollowUp, id)} order.
+     */
+    @Transactional
+    public List<Lead> claimOverdueLeads(LeadScanCursor after, LocalDateTime before) {
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().plusSeconds(taskConfig.getClaimLeaseSeconds());
+
+        return leadRepo.claimOverdueLeads(after, before, EXCLUDED_STAGES,
+                taskConfig.getWorkerId(), leaseExpiresAt, taskConfig.getCatchUpChunkSize());
+    }
+
+
+    /**
+     * Persists the follow-up scan watermark. It only ever moves forward, even with several instances.
+     * <p>
+     * The watermark is held just before the oldest lead between {@code from} and {@code through} that is
+     * still due. Dispatched leads have moved on to their next follow-up, so such a lead was skipped as
+     * locked, is still leased by another worker, or failed to dispatch; holding the watermark there
+     * means a later catch-up claims it once its lock or lease is gone, instead of orphaning it.
+     *
+     * @param from    The keyset position this catch-up run started after.
+     * @param through The keyset position up to which overdue leads have been claimed.
+     */
+    public void advanceScanWatermark(LeadScanCursor from, LeadScanCursor through) {
+        LeadScanCursor cursor = leadRepo.findFollowUpSchedulePage(from, through.nextFollowUp(), EXCLUDED_STAGES, 1)
+                .stream()
+                .findFirst()
+                .map(oldestDue -> new LeadScanCursor(oldestDue.nextFollowUp(), oldestDue.leadId() - 1))
+                .filter(through::isAfter)
+                .orElse(through);
+        if (!cursor.isAfter(from)) return;
+
+        watermarkRepo.advance(FOLLOW_UP_WATERMARK, cursor)
+                .ifPresent(watermark -> logger.debug("Follow-up scan watermark now at {}", watermark));
+    }
+
+
+    /**
+     * Loads every lead due within the configured horizon onto the follow-up timing wheel.
+     * The range starts one polling window back so leads inserted between preloads are not missed.
+     *
+     * @return The number of leads placed on the wheel.
+     */
+    public int preloadFollowUpWheel() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusHours(taskConfig.getWheelHorizonHours());
+        LeadScanCursor cursor = new LeadScanCursor(now.minusMinutes(taskConfig.getFollowUpWindowMinutes()), 0);
+
+        int loaded = 0;
+        List<LeadScanCursor> page;
+        while (!(page = leadRepo.findFollowUpSchedulePage(
+                cursor, until, EXCLUDED_STAGES, taskConfig.getClaimBatchSize())).isEmpty()) {
+            page.forEach(entry -> followUpWheel.schedule(entry.leadId(), entry.nextFollowUp()));
+            loaded += page.size();
+            cursor = page.get(page.size() - 1);
+        }
+        return loaded;
     }
 
 
@@ -75,10 +195,8 @@ public class LeadEngagementManager implements LeadWorkflowManager {
      * @param leadUUID The unique identifier of the lead.
      * @return The booking page URL, or null if the lead is not found.
      */
-    @Transactional
     public String getBookingPageUrl(String leadUUID) {
-        Optional<Lead> optLead = leadRepo.findLeadByUUID(leadUUID);
-        return optLead.map(Lead::getBookingPageUrl).orElse(null);
+        return leadRepo.findLeadRouteByUUID(leadUUID).map(LeadRoute::bookingPageUrl).orElse(null);
     }
 
 
@@ -151,27 +269,74 @@ public class LeadEngagementManager implements LeadWorkflowManager {
         lead.setCurrentStage(LeadStage.AGED_HIGH_PRIORITY.toString());
 
         Optional<Lead> optUpdatedLead = leadRepo.safeUpdate(lead);
-        optUpdatedLead.ifPresent(updatedLead -> logger.info("{}: {}", logMessage, updatedLead));
+        optUpdatedLead.ifPresent(updatedLead -> {
+            logger.info("{}: {}", logMessage, updatedLead);
+            followUpWheel.schedule(updatedLead);
+        });
     }
 
 
 
 
     /**
-     * Handles the full engagement update cycle for a lead after follow-up contact.
+     * Handles the full engagement update cycle for a batch of leads after follow-up contact.
      * <p>
-     * This includes:
+     * For each lead this includes:
      * - Recalculating the lead's stage based on how long it's been in the current one
      * - Setting the next follow-up date and time using engagement history and divisor logic
      * - Incrementing follow-up count and updating timestamps
+     * - Releasing the outreach lease taken when the lead was claimed
      * <p>
-     * Assumes SMS/email/call dispatching has already been executed externally.
+     * Event history for the whole batch is loaded with one query, and the results are written with
+     * JDBC-batched UPDATEs, one transaction per {@code task.engagement.writeBatchSize} leads. The
+     * outbound messages composed for each lead are queued in the outbox within that same transaction;
+     * leads whose update can't be computed keep their lease and have their messages dropped.
      *
-     * @param lead The lead being updated post-engagement.
+     * @param leads  The leads being updated post-engagement.
+     * @param outbox The SMS/email messages composed for those leads, sent later by the outbox relay.
      */
-    @Transactional
-    public void handleFollowUpExecution(Lead lead) {
+    public void handleFollowUpExecution(List<Lead> leads, List<OutboundMessage> outbox) {
+        if (leads.isEmpty()) return;
+
+        Map<Integer, List<Event>> eventsByLead = eventRepo.findByLeadIds(
+                        leads.stream().map(Lead::getId).toList()).stream()
+                .collect(Collectors.groupingBy(Event::getLeadId));
+
+        List<Lead> updated = leads.stream()
+                .filter(lead -> applyFollowUpExecution(lead, eventsByLead.getOrDefault(lead.getId(), List.of())))
+                .toList();
+
+        Map<Integer, List<OutboundMessage>> outboxByLead = outbox.stream()
+                .collect(Collectors.groupingBy(OutboundMessage::getLeadId));
+
+        List<Lead> written = leadBatchWriter.writeFollowUpExecutions(updated, outboxByLead,
+                taskConfig.getEngagementWriteBatchSize());
+        written.forEach(followUpWheel::schedule);
 
+        int queued = written.stream()
+                .mapToInt(lead -> outboxByLead.getOrDefault(lead.getId(), List.of()).size())
+                .sum();
+        logger.info("Follow-up executed and updated for {} of {} leads ({} messages queued)",
+                written.size(), leads.size(), queued);
+    }
+
+
+    /*
+     * Computes the post-follow-up stage, next follow-up and counters for a lead in memory.
+     * Returns false (leaving the lease to expire) if the lead's state can't be evaluated.
+     */
+    private boolean applyFollowUpExecution(Lead lead, List<Event> eventList) {
+        try {
+            computeFollowUpExecution(lead, eventList);
+            return true;
+        } catch (RuntimeException ex) {
+            logger.error("Could not compute follow-up update for Lead: {} --- Message: {}", lead, ex.getMessage());
+            return false;
+        }
+    }
+
+
+    private void computeFollowUpExecution(Lead lead, List<Event> eventList) {
         LeadStage originalStage = LeadStage.fromString(lead.getOriginalStage());
         LeadStage currentStage = LeadStage.fromString(lead.getCurrentStage());
         LocalDateTime stageUpdatedAt = lead.getStageUpdatedAt();
@@ -182,8 +347,6 @@ public class LeadEngagementManager implements LeadWorkflowManager {
             lead.setStageUpdatedAt(LocalDateTime.now());
         }
 
-        List<Event> eventList = eventRepo.findByLead(lead);
-
         LocalDate nextFollowUpDate = engagementEngine.determineFollowUpDate(
                 nextStage == LeadStage.AGED_HIGH_PRIORITY
                         ? lead.getStageUpdatedAt()
@@ -196,12 +359,14 @@ public class LeadEngagementManager implements LeadWorkflowManager {
         lead.setNextFollowUp(LocalDateTime.of(nextFollowUpDate, nextFollowUpTime));
         lead.setPreviousFollowUp(LocalDateTime.now());
         lead.setFollowUpCount(lead.getFollowUpCount() + 1);
+        lead.releaseLease();
+    }
 
-        leadRepo.safeUpdate(lead).ifPresent(updated ->
-                logger.info("Follow-up executed and updated for Lead: {}", updated)
-        );
 
-    }
+    private static final String FOLLOW_UP_WATERMARK = "follow_up_scan";
+
+    private static final List<String> EXCLUDED_STAGES =
+            List.of(LeadStage.DNC.toString(), LeadStage.CONVERTED.toString());
 
 
 }
@@ -7,6 +7,8 @@ import com.saleset.core.entities.Contact;
 import com.saleset.core.entities.Lead;
 import com.saleset.core.enums.LeadStage;
 import com.saleset.core.service.engine.EngagementEngineImpl;
+import com.saleset.core.service.outreach.routing.LeadSenderAssigner;
+import com.saleset.core.service.outreach.task.FollowUpTimingWheel;
 import com.saleset.core.service.outreach.task.TaskConfig;
 import com.saleset.integration.shorten.UrlShortenerImpl;
 import com.saleset.integration.twilio.service.PhoneValidationService;
@@ -43,6 +45,8 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
     private final LeadEngagementManager leadEngagementManager;
     private final TaskConfig taskConfig;
     private final UrlShortenerImpl urlShortener;
+    private final FollowUpTimingWheel followUpWheel;
+    private final LeadSenderAssigner leadSenderAssigner;
 
     @Autowired
     public LeadEntryPipelineManager(EngagementEngineImpl engagementEngine,
@@ -52,7 +56,8 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
                                     PhoneValidationService phoneValidationService,
                                     QueryUrlGenerator queryUrlGenerator,
                                     LeadEngagementManager leadEngagementManager,
-                                    TaskConfig taskConfig, UrlShortenerImpl urlShortener) {
+                                    TaskConfig taskConfig, UrlShortenerImpl urlShortener,
+                                    FollowUpTimingWheel followUpWheel, LeadSenderAssigner leadSenderAssigner) {
         this.leadEngagementManager = leadEngagementManager;
         this.contactTransactionManager = contactTransactionManager;
         this.addressTransactionManager = addressTransactionManager;
@@ -61,6 +66,8 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
         this.queryUrlGenerator = queryUrlGenerator;
         this.taskConfig = taskConfig;
         this.urlShortener = urlShortener;
+        this.followUpWheel = followUpWheel;
+        this.leadSenderAssigner = leadSenderAssigner;
     }
 
 
@@ -130,7 +137,7 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
 
     /*
      * Creates and inserts a new Lead entity tied to the provided contact and address.
-     * Populates booking and tracking URLs using the query generator.
+     * Populates booking and tracking URLs using the query generator, and resolves the SMS sender number.
      * Optionally supports shortening URLs (may be commented out for performance/testing).
      *
      * @param leadData The incoming data transfer object containing lead details.
@@ -144,6 +151,7 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
                 ? new Lead(leadData, contact, address, scheduledOutreach)
                 : new Lead(leadData, contact, scheduledOutreach);
 
+        lead.setSenderNumber(leadSenderAssigner.resolve(contact, address));
         lead.setBookingPageUrl(queryUrlGenerator.buildBooking(lead, contact, address));
         lead.setTrackingWebhookUrl(queryUrlGenerator.buildTracking(lead));
 
@@ -154,7 +162,10 @@ public class LeadEntryPipelineManager implements LeadWorkflowManager {
         lead.setBookingPageUrl(shortUrlBooking);
 
         Optional<Lead> optLead = leadRepo.safeInsert(lead);
-        optLead.ifPresent(newLead -> logger.info("Lead inserted successfully: {}", newLead));
+        optLead.ifPresent(newLead -> {
+            logger.info("Lead inserted successfully: {}", newLead);
+            followUpWheel.schedule(newLead);
+        });
     }
 
 
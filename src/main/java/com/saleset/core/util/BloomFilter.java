@@ -0,0 +1,161 @@
+package com.saleset.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over {@code long} and string keys, backed by an {@link AtomicLongArray}
+ * so concurrent writers and readers never need a lock.
+ * <p>
+ * {@link #mightContain} never returns {@code false} for a key that was added; it returns {@code true}
+ * for a key that was never added with roughly the false-positive probability the filter was sized for,
+ * as long as no more than the expected number of keys are added.
+ * <p>
+ * Keys are spread with a 64-bit mix and probed by double hashing (Kirsch–Mitzenmacher), which needs
+ * a single hash computation per operation.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        // Probes are int-indexed, which caps a filter at 2^31 bits (256 MB).
+        if (bitSize > Integer.MAX_VALUE) throw new IllegalArgumentException("Bloom filter too large: " + bitSize + " bits");
+        long words = (bitSize + 63) >>> 6;
+
+        this.bits = new AtomicLongArray((int) words);
+        this.bitSize = Math.min(words << 6, Integer.MAX_VALUE);
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sizes a filter for the expected number of keys and target false-positive probability.
+     *
+     * @param expectedInsertions How many distinct keys the filter should hold.
+     * @param falsePositiveRate  Target false-positive probability, between 0 and 1 (exclusive).
+     * @return An empty filter.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("expectedInsertions must be positive");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+
+        long bitSize = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2))));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+
+    /**
+     * Adds a key.
+     *
+     * @return {@code true} if the filter changed, i.e. the key was definitely not present before.
+     */
+    public boolean put(long key) {
+        long hash = mix64(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        boolean changed = false;
+        for (int i = 1; i <= hashFunctions; i++) {
+            changed |= setBit(index(hash1 + i * hash2));
+        }
+        return changed;
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix64(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctions; i++) {
+            if (!getBit(index(hash1 + i * hash2))) return false;
+        }
+        return true;
+    }
+
+    public boolean put(CharSequence key) { return put(hash64(key)); }
+
+    public boolean mightContain(CharSequence key) { return mightContain(hash64(key)); }
+
+
+    /**
+     * Clears every bit. Concurrent readers may briefly see a partially cleared filter.
+     */
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) bits.set(i, 0L);
+        bitsSet.set(0);
+    }
+
+    public long bitSize() { return bitSize; }
+
+    public int hashFunctions() { return hashFunctions; }
+
+    public long memoryBytes() { return (long) bits.length() * Long.BYTES; }
+
+    /**
+     * Estimates how many distinct keys were added, from the share of bits set.
+     */
+    public long approximateElementCount() {
+        double fractionSet = (double) bitsSet.get() / bitSize;
+        if (fractionSet >= 1) return Long.MAX_VALUE;
+        return Math.round(-Math.log1p(-fractionSet) * bitSize / hashFunctions);
+    }
+
+    /**
+     * The probability that {@link #mightContain} returns {@code true} for a key that was never added,
+     * given how full the filter currently is.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+    }
+
+
+    private int index(int combinedHash) {
+        // Flip negative hashes, then fold into [0, bitSize).
+        long positive = combinedHash < 0 ? ~combinedHash : combinedHash;
+        return (int) (positive % bitSize);
+    }
+
+    private boolean setBit(int bitIndex) {
+        int word = bitIndex >>> 6;
+        long mask = 1L << bitIndex;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) return false;
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitsSet.incrementAndGet();
+        return true;
+    }
+
+    private boolean getBit(int bitIndex) {
+        return (bits.get(bitIndex >>> 6) & (1L << bitIndex)) != 0;
+    }
+
+    // Finalizer of MurmurHash3's 64-bit variant: every input bit affects every output bit.
+    private static long mix64(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars; mix64 then spreads it across the filter.
+    private static long hash64(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+}
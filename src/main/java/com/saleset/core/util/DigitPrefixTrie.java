@@ -0,0 +1,79 @@
+package com.saleset.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable longest-prefix-match trie over decimal digits, e.g. for routing E.164 numbers by
+ * country and area code. Non-digit characters in keys and lookups (such as a leading {@code +}) are ignored.
+ * <p>
+ * Nodes are stored as flat {@code int[10]} child tables, so a lookup walks at most one array per
+ * digit and allocates nothing.
+ *
+ * @param <V> The value stored at a prefix.
+ */
+public class DigitPrefixTrie<V> {
+
+    private final int[][] children;
+    private final Object[] values;
+
+    private DigitPrefixTrie(int[][] children, Object[] values) {
+        this.children = children;
+        this.values = values;
+    }
+
+    public static <V> DigitPrefixTrie<V> of(Map<String, V> prefixes) {
+        List<int[]> children = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        children.add(emptyNode());
+        values.add(null);
+
+        prefixes.forEach((prefix, value) -> {
+            int node = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                int digit = prefix.charAt(i) - '0';
+                if (digit < 0 || digit > 9) continue;
+
+                if (children.get(node)[digit] == 0) {
+                    children.add(emptyNode());
+                    values.add(null);
+                    children.get(node)[digit] = children.size() - 1;
+                }
+                node = children.get(node)[digit];
+            }
+            values.set(node, value);
+        });
+
+        return new DigitPrefixTrie<>(children.toArray(new int[0][]), values.toArray());
+    }
+
+    /**
+     * Returns the value of the longest configured prefix of the given number.
+     *
+     * @param number Digits to match, optionally with formatting characters.
+     * @return The matching value, or {@code null} if no prefix matches.
+     */
+    @SuppressWarnings("unchecked")
+    public V longestPrefixMatch(CharSequence number) {
+        if (number == null) return null;
+
+        int node = 0;
+        Object match = values[0];
+        for (int i = 0, length = number.length(); i < length; i++) {
+            int digit = number.charAt(i) - '0';
+            if (digit < 0 || digit > 9) continue;
+
+            node = children[node][digit];
+            if (node == 0) break;
+            if (values[node] != null) match = values[node];
+        }
+        return (V) match;
+    }
+
+    public int size() { return (int) Arrays.stream(values).filter(value -> value != null).count(); }
+
+    private static int[] emptyNode() { return new int[10]; }
+
+}
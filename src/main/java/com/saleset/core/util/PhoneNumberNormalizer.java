@@ -9,21 +9,71 @@ public class PhoneNumberNormalizer {
 
     private static final Logger logger = LoggerFactory.getLogger(PhoneNumberNormalizer.class);
 
+    // Returned by normalizeToE164Long for numbers that aren't a valid 10-digit or 1-prefixed 11-digit number.
+    public static final long INVALID = -1L;
+
+    private static final long NANP_COUNTRY_CODE = 10_000_000_000L;
+
+    /**
+     * Normalizes a phone number to E.164 (e.g. {@code +15165551234}). Every non-digit character is
+     * ignored; a 10-digit number gets the +1 country code, an 11-digit number must already start with 1.
+     * <p>
+     * The input is scanned once without a regex, and the only string built is the result.
+     *
+     * @param phoneNumber The raw phone number, in any formatting.
+     * @return The E.164 number, or empty if the input doesn't hold a valid US/Canada number.
+     */
     public static Optional<String> normalizeToE164(String phoneNumber) {
         if (phoneNumber == null) return Optional.empty();
 
-        String digitsOnly = phoneNumber.replaceAll("\\D", "");
+        long e164 = normalizeToE164Long(phoneNumber);
+        if (e164 == INVALID) {
+            logger.error("Invalid phone number format: {}", phoneNumber);
+            return Optional.empty();
+        }
+        return Optional.of(toE164String(e164));
+    }
+
+
+    /**
+     * Allocation-free variant of {@link #normalizeToE164} that packs the E.164 digits into a {@code long}
+     * (e.g. {@code 15165551234L}), for use as a primitive map key or in comparisons.
+     *
+     * @param phoneNumber The raw phone number, in any formatting.
+     * @return The packed E.164 digits, or {@link #INVALID}.
+     */
+    public static long normalizeToE164Long(CharSequence phoneNumber) {
+        if (phoneNumber == null) return INVALID;
+
+        long digits = 0;
+        int digitCount = 0;
+        char firstDigit = 0;
 
-        if (digitsOnly.length() == 11 && digitsOnly.startsWith("1")) {
+        for (int i = 0, length = phoneNumber.length(); i < length; i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') continue;
+
+            if (++digitCount > 11) return INVALID;
+            if (digitCount == 1) firstDigit = c;
+            digits = digits * 10 + (c - '0');
+        }
+
+        if (digitCount == 11 && firstDigit == '1') {
             // Already has a country code (e.g., 1 for the US/Canada)
-            return Optional.of("+" + digitsOnly);
-        } else if (digitsOnly.length() == 10) {
+            return digits;
+        } else if (digitCount == 10) {
             // Add the default country code (+1 for US/Canada)
-            return Optional.of("+1" + digitsOnly);
-        } else {
-            logger.error("Invalid phone number format: {}", phoneNumber);
-            return Optional.empty();
+            return NANP_COUNTRY_CODE + digits;
         }
+        return INVALID;
+    }
+
+
+    /**
+     * Formats digits packed by {@link #normalizeToE164Long} back into an E.164 string.
+     */
+    public static String toE164String(long e164) {
+        return "+" + e164;
     }
 
-}
\ No newline at end of file
+}
@@ -2,11 +2,10 @@ package com.saleset.core.util;
 
 import com.saleset.core.dao.AddressRepo;
 import com.saleset.core.dao.LeadRepo;
-import com.saleset.core.dao.MarketZipDataRepo;
 import com.saleset.core.entities.Address;
 import com.saleset.core.entities.Contact;
 import com.saleset.core.entities.Lead;
-import com.saleset.core.entities.MarketZipData;
+import com.saleset.core.service.cache.MarketZipSnapshot;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,9 +27,9 @@ public class QueryUrlGenerator {
     @Value("${booking.virtual.url}")
     private String bookingVirtualUrl;
 
-    private final MarketZipDataRepo mzdRepo;
+    private final MarketZipSnapshot marketZipSnapshot;
 
-    public QueryUrlGenerator(MarketZipDataRepo mzdRepo) { this.mzdRepo = mzdRepo; }
+    public QueryUrlGenerator(MarketZipSnapshot marketZipSnapshot) { this.marketZipSnapshot = marketZipSnapshot; }
 
     public String buildTracking(Lead lead) {
         return String.format("%s?UUID=%s", eventTrackingWebhook, encode(lead.getUuid()));
@@ -56,7 +55,7 @@ public class QueryUrlGenerator {
             return bookingVirtualUrl;
         }
 
-        return mzdRepo.findByAddress(address)
+        return marketZipSnapshot.find(address.getZipCode())
                 .filter(mzd -> "ANY".equals(mzd.getAppointmentType()))
                 .map(mzd -> bookingUrl)
                 .orElse(bookingVirtualUrl);
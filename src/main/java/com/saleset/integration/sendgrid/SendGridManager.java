@@ -15,11 +15,13 @@ import com.sendgrid.helpers.mail.objects.Personalization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 
 @Service
+@Profile("!loadtest")
 public class SendGridManager {
 
     private static final Logger logger = LoggerFactory.getLogger(SendGridManager.class);
@@ -245,7 +247,7 @@ public class SendGridManager {
      * @return Response The response from the SendGrid API after sending the email.
      * @throws IOException If an error occurs during communication with the SendGrid API.
      */
-    private Response sendDynamicEmail(Personalization personalization, Mail mail, String to, String from) throws IOException {
+    protected Response sendDynamicEmail(Personalization personalization, Mail mail, String to, String from) throws IOException {
         Email fromEmail = new Email(from);
         Email toEmail = new Email(to);
         mail.setFrom(fromEmail);
@@ -2,6 +2,7 @@ package com.saleset.integration.shorten;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -13,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Profile("!loadtest")
 public class RebrandlyUrlShortenService {
 
     @Value("${rebrandly.workspace.id}")
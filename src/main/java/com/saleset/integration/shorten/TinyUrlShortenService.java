@@ -1,6 +1,7 @@
 package com.saleset.integration.shorten;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Profile("!loadtest")
 public class TinyUrlShortenService {
 
     @Value("${tinyurl.create.token}")
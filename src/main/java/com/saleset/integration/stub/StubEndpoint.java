@@ -0,0 +1,138 @@
+package com.saleset.integration.stub;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated behaviour of one external API for the {@code loadtest} profile: each call waits for a
+ * latency drawn from a log-normal distribution, then fails at a configured error rate or when the
+ * endpoint's own rate limit is exceeded.
+ * <p>
+ * Settings are read from {@code loadtest.stub.<name>.*}, falling back to
+ * {@code loadtest.stub.default.*}:
+ * <ul>
+ *   <li>{@code medianMillis} / {@code p99Millis} – latency distribution; equal values give a fixed latency</li>
+ *   <li>{@code errorRate} – fraction of calls failing with a server error</li>
+ *   <li>{@code rateLimitPerSecond} / {@code rateLimitBurst} – token bucket; calls beyond it are rejected
+ *       immediately as rate limited (0 disables the limit)</li>
+ * </ul>
+ * The random source is seeded from {@code loadtest.stub.seed} and the endpoint name, so runs with the
+ * same settings and call order see the same latencies and failures.
+ */
+public class StubEndpoint {
+
+    public enum Outcome { OK, ERROR, RATE_LIMITED }
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final String name;
+    private final double mu;
+    private final double sigma;
+    private final double errorRate;
+    private final double rateLimitPerSecond;
+    private final double rateLimitBurst;
+    private final Random random;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    public StubEndpoint(String name, double medianMillis, double p99Millis, double errorRate,
+                        double rateLimitPerSecond, double rateLimitBurst, long seed) {
+        this.name = name;
+        this.mu = Math.log(Math.max(medianMillis, 0.001));
+        this.sigma = p99Millis > medianMillis ? Math.log(p99Millis / medianMillis) / Z_99 : 0;
+        this.errorRate = errorRate;
+        this.rateLimitPerSecond = rateLimitPerSecond;
+        this.rateLimitBurst = Math.max(1, rateLimitBurst);
+        this.tokens = this.rateLimitBurst;
+        this.random = new Random(seed ^ name.hashCode());
+    }
+
+    /**
+     * Builds the endpoint from {@code loadtest.stub.<name>.*} properties.
+     *
+     * @param environment The Spring environment.
+     * @param name        Endpoint name, e.g. {@code twilio.sms}.
+     * @return The configured endpoint.
+     */
+    public static StubEndpoint from(Environment environment, String name) {
+        return new StubEndpoint(name,
+                property(environment, name, "medianMillis", 50.0),
+                property(environment, name, "p99Millis", 250.0),
+                property(environment, name, "errorRate", 0.0),
+                property(environment, name, "rateLimitPerSecond", 0.0),
+                property(environment, name, "rateLimitBurst", 1.0),
+                environment.getProperty("loadtest.stub.seed", Long.class, 42L));
+    }
+
+
+    /**
+     * Simulates one call: rate-limited calls are rejected without delay, everything else waits for
+     * its sampled latency and then succeeds or fails.
+     *
+     * @return How the simulated call ended.
+     * @throws IllegalStateException if the thread is interrupted while waiting.
+     */
+    public Outcome call() {
+        if (!tryAcquire()) return Outcome.RATE_LIMITED;
+
+        double latencyMillis;
+        boolean failed;
+        synchronized (random) {
+            latencyMillis = Math.exp(mu + sigma * random.nextGaussian());
+            failed = random.nextDouble() < errorRate;
+        }
+
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (latencyMillis * 1000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during simulated call to " + name, ex);
+        }
+        return failed ? Outcome.ERROR : Outcome.OK;
+    }
+
+    /**
+     * Simulates one call made through {@code RestTemplate}, failing with the exception it would throw
+     * for a 429 or 500 response.
+     *
+     * @throws HttpClientErrorException.TooManyRequests if rate limited.
+     * @throws HttpServerErrorException.InternalServerError on a simulated error.
+     */
+    public void callRest() {
+        switch (call()) {
+            case RATE_LIMITED -> throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too Many Requests", null, null, null);
+            case ERROR -> throw HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Internal Server Error", null, null, null);
+            case OK -> { }
+        }
+    }
+
+    public String getName() { return name; }
+
+
+    private synchronized boolean tryAcquire() {
+        if (rateLimitPerSecond <= 0) return true;
+
+        long now = System.nanoTime();
+        tokens = Math.min(rateLimitBurst, tokens + (now - lastRefillNanos) * rateLimitPerSecond / 1e9);
+        lastRefillNanos = now;
+
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    private static double property(Environment environment, String name, String key, double defaultValue) {
+        Double fallback = environment.getProperty("loadtest.stub.default." + key, Double.class, defaultValue);
+        return environment.getProperty("loadtest.stub." + name + "." + key, Double.class, fallback);
+    }
+
+}
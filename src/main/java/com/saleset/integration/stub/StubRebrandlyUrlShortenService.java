@@ -0,0 +1,35 @@
+package com.saleset.integration.stub;
+
+import com.saleset.integration.shorten.RebrandlyUrlShortenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code loadtest} stand-in for {@link RebrandlyUrlShortenService}, simulated by the
+ * {@code rebrandly} stub endpoint. Failures throw like the real RestTemplate call.
+ */
+@Service
+@Profile("loadtest")
+public class StubRebrandlyUrlShortenService extends RebrandlyUrlShortenService {
+
+    private final StubEndpoint endpoint;
+    private final AtomicLong linkSequence = new AtomicLong();
+
+    @Autowired
+    public StubRebrandlyUrlShortenService(RestTemplate restTemplate, Environment environment) {
+        super(restTemplate);
+        this.endpoint = StubEndpoint.from(environment, "rebrandly");
+    }
+
+    @Override
+    public String create(String longUrl) {
+        endpoint.callRest();
+        return "https://rebrand.stub/" + Long.toString(linkSequence.incrementAndGet(), 36);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.saleset.integration.stub;
+
+import com.saleset.integration.sendgrid.SendGridManager;
+import com.sendgrid.Response;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@code loadtest} stand-in for {@link SendGridManager}. Emails are still rendered by the real
+ * manager, but the final send is simulated by the {@code sendgrid} stub endpoint and answered with
+ * the status SendGrid would return: 202 on success, 429 when rate limited, 500 on error.
+ */
+@Service
+@Profile("loadtest")
+public class StubSendGridManager extends SendGridManager {
+
+    private final StubEndpoint endpoint;
+
+    @Autowired
+    public StubSendGridManager(Environment environment) {
+        this.endpoint = StubEndpoint.from(environment, "sendgrid");
+    }
+
+    @Override
+    protected Response sendDynamicEmail(Personalization personalization, Mail mail, String to, String from)
+            throws IOException {
+        mail.setFrom(new Email(from));
+        personalization.addTo(new Email(to));
+        mail.build();
+
+        return switch (endpoint.call()) {
+            case OK -> new Response(202, "", Map.of());
+            case RATE_LIMITED -> new Response(429, "{\"errors\":[{\"message\":\"too many requests\"}]}", Map.of());
+            case ERROR -> new Response(500, "{\"errors\":[{\"message\":\"internal error\"}]}", Map.of());
+        };
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.saleset.integration.stub;
+
+import com.saleset.integration.shorten.TinyUrlShortenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code loadtest} stand-in for {@link TinyUrlShortenService}, simulated by the {@code tinyurl} stub
+ * endpoint. Failures throw like the real RestTemplate call, so the Rebrandly fallback is exercised.
+ */
+@Service
+@Profile("loadtest")
+public class StubTinyUrlShortenService extends TinyUrlShortenService {
+
+    private final StubEndpoint endpoint;
+    private final AtomicLong linkSequence = new AtomicLong();
+
+    @Autowired
+    public StubTinyUrlShortenService(RestTemplate restTemplate, Environment environment) {
+        super(restTemplate);
+        this.endpoint = StubEndpoint.from(environment, "tinyurl");
+    }
+
+    @Override
+    public String create(String longUrl) {
+        endpoint.callRest();
+        return "https://tinyurl.stub/" + Long.toString(linkSequence.incrementAndGet(), 36);
+    }
+
+}
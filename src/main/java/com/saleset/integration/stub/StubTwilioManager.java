@@ -0,0 +1,71 @@
+package com.saleset.integration.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saleset.core.enums.PhoneLineType;
+import com.saleset.integration.twilio.dto.PhoneNumberDetails;
+import com.saleset.integration.twilio.service.TwilioManager;
+import com.twilio.exception.ApiException;
+import com.twilio.rest.api.v2010.account.Message;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code loadtest} stand-in for {@link TwilioManager}. Sends and lookups never leave the process;
+ * they take the latency and fail the way the {@code twilio.sms} and {@code twilio.lookup} stub
+ * endpoints are configured to, raising the same {@link ApiException}s as the real API (429 / 20429
+ * when rate limited). Every lookup reports a mobile line, and status callbacks are always accepted.
+ */
+@Service
+@Profile("loadtest")
+public class StubTwilioManager extends TwilioManager {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong messageSequence = new AtomicLong();
+    private final StubEndpoint smsEndpoint;
+    private final StubEndpoint lookupEndpoint;
+
+    @Autowired
+    public StubTwilioManager(Environment environment) {
+        this.smsEndpoint = StubEndpoint.from(environment, "twilio.sms");
+        this.lookupEndpoint = StubEndpoint.from(environment, "twilio.lookup");
+    }
+
+
+    @Override
+    public Message sendSMS(String from, String to, String messageBody) {
+        failOn(smsEndpoint.call());
+
+        JSONObject json = new JSONObject()
+                .put("sid", String.format("SM%032x", messageSequence.incrementAndGet()))
+                .put("status", "queued")
+                .put("from", from)
+                .put("to", to)
+                .put("body", messageBody);
+        return Message.fromJson(json.toString(), objectMapper);
+    }
+
+    @Override
+    public PhoneNumberDetails lookupPhoneNumber(String phoneNumber) {
+        failOn(lookupEndpoint.call());
+        return new PhoneNumberDetails(PhoneLineType.MOBILE);
+    }
+
+    @Override
+    public boolean isAuthenticStatusCallback(Map<String, String> params, String signature) { return true; }
+
+
+    private static void failOn(StubEndpoint.Outcome outcome) {
+        switch (outcome) {
+            case RATE_LIMITED -> throw new ApiException("Too Many Requests", 20429, null, 429, null);
+            case ERROR -> throw new ApiException("Internal Server Error", 20500, null, 500, null);
+            case OK -> { }
+        }
+    }
+
+}
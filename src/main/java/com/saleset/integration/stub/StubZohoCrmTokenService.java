@@ -0,0 +1,46 @@
+package com.saleset.integration.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saleset.integration.zoho.enums.ZohoModuleApiName;
+import com.saleset.integration.zoho.service.ZohoCrmTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code loadtest} stand-in for {@link ZohoCrmTokenService}. Tokens are cached per module for
+ * {@code loadtest.stub.zoho.token.expiresInSeconds}, and each refresh is simulated by the
+ * {@code zoho.token} stub endpoint.
+ */
+@Service
+@Profile("loadtest")
+public class StubZohoCrmTokenService extends ZohoCrmTokenService {
+
+    private final StubEndpoint endpoint;
+    private final long expiresInSeconds;
+    private final Map<ZohoModuleApiName, Instant> expiries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StubZohoCrmTokenService(RestTemplate restTemplate, ObjectMapper objectMapper, Environment environment) {
+        super(restTemplate, objectMapper);
+        this.endpoint = StubEndpoint.from(environment, "zoho.token");
+        this.expiresInSeconds = environment.getProperty("loadtest.stub.zoho.token.expiresInSeconds", Long.class, 3600L);
+    }
+
+    @Override
+    public String getAccessToken(ZohoModuleApiName moduleApiName) {
+        expiries.compute(moduleApiName, (module, expiresAt) -> {
+            if (expiresAt != null && Instant.now().isBefore(expiresAt)) return expiresAt;
+            endpoint.callRest();
+            return Instant.now().plusSeconds(expiresInSeconds);
+        });
+        return "stub-token-" + moduleApiName;
+    }
+
+}
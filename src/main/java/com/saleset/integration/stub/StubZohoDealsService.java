@@ -0,0 +1,59 @@
+package com.saleset.integration.stub;
+
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Appointment;
+import com.saleset.integration.zoho.dto.response.ZohoFetchResponse;
+import com.saleset.integration.zoho.enums.ZohoModuleApiName;
+import com.saleset.integration.zoho.service.ZohoCrmTokenService;
+import com.saleset.integration.zoho.service.ZohoDealsService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+
+/**
+ * {@code loadtest} stand-in for {@link ZohoDealsService}, simulated by the {@code zoho.deals} stub
+ * endpoint. Searches find one deal whose searched field holds the searched value.
+ */
+@Service
+@Profile("loadtest")
+public class StubZohoDealsService extends ZohoDealsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubZohoDealsService.class);
+
+    private final ZohoCrmTokenService tokenService;
+    private final StubEndpoint endpoint;
+
+    @Autowired
+    public StubZohoDealsService(RestTemplate restTemplate, ZohoCrmTokenService tokenService, Environment environment) {
+        super(restTemplate, tokenService);
+        this.tokenService = tokenService;
+        this.endpoint = StubEndpoint.from(environment, "zoho.deals");
+    }
+
+    @Override
+    public Optional<ZohoFetchResponse> fetchDeal(String field, String value) {
+        tokenService.getAccessToken(ZohoModuleApiName.DEALS);
+        if (endpoint.call() != StubEndpoint.Outcome.OK) return Optional.empty();
+
+        JSONObject record = new JSONObject().put("id", String.valueOf(Math.abs((long) value.hashCode()))).put(field, value);
+        return Optional.of(new ZohoFetchResponse(new JSONObject().put("data", new JSONArray().put(record)).toString()));
+    }
+
+    @Override
+    public void updateDealAppointment(Appointment appointment, Address address, ZohoFetchResponse fetchResponse) {
+        tokenService.getAccessToken(ZohoModuleApiName.DEALS);
+        StubEndpoint.Outcome outcome = endpoint.call();
+        if (outcome != StubEndpoint.Outcome.OK) {
+            logger.error("Appointment & Address unable to be added to Deal: {} -- Outcome: {}", fetchResponse.getId(), outcome);
+        }
+    }
+
+}
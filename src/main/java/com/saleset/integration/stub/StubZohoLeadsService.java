@@ -0,0 +1,86 @@
+package com.saleset.integration.stub;
+
+import com.saleset.core.dto.request.AppointmentRequest;
+import com.saleset.core.entities.Address;
+import com.saleset.core.entities.Appointment;
+import com.saleset.core.entities.Lead;
+import com.saleset.integration.zoho.dto.response.ZohoFetchResponse;
+import com.saleset.integration.zoho.dto.response.ZohoLeadUpsertResponse;
+import com.saleset.integration.zoho.enums.ZohoModuleApiName;
+import com.saleset.integration.zoho.service.ZohoCrmTokenService;
+import com.saleset.integration.zoho.service.ZohoLeadsService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code loadtest} stand-in for {@link ZohoLeadsService}. Every call fetches a token like the real
+ * service and is simulated by the {@code zoho.leads} stub endpoint. Upserts answer with the payloads
+ * Zoho returns (SUCCESS with a record id, or TOO_MANY_REQUESTS / an empty body on failure), and
+ * fetches find a record for every id unless the call fails.
+ */
+@Service
+@Profile("loadtest")
+public class StubZohoLeadsService extends ZohoLeadsService {
+
+    // Zoho record ids are 19-digit numbers
+    private static final long RECORD_ID_BASE = 5_000_000_000_000_000_000L;
+
+    private final ZohoCrmTokenService tokenService;
+    private final StubEndpoint endpoint;
+    private final AtomicLong recordSequence = new AtomicLong();
+
+    @Autowired
+    public StubZohoLeadsService(RestTemplate restTemplate, ZohoCrmTokenService tokenService, Environment environment) {
+        super(restTemplate, tokenService);
+        this.tokenService = tokenService;
+        this.endpoint = StubEndpoint.from(environment, "zoho.leads");
+    }
+
+    @Override
+    public ZohoLeadUpsertResponse updateLeadAppointment(Appointment appointment, Lead lead) {
+        return upsert(lead.getZcrmExternalId());
+    }
+
+    @Override
+    public ZohoLeadUpsertResponse updateLeadAppointment(Appointment appointment, Address address, String zcrmLeadId) {
+        return upsert(zcrmLeadId);
+    }
+
+    @Override
+    public ZohoLeadUpsertResponse createLead(AppointmentRequest appointmentData) {
+        return upsert(String.valueOf(RECORD_ID_BASE + recordSequence.incrementAndGet()));
+    }
+
+    @Override
+    public Optional<ZohoFetchResponse> fetchLead(String zcrmLeadId) {
+        tokenService.getAccessToken(ZohoModuleApiName.LEADS);
+        if (endpoint.call() != StubEndpoint.Outcome.OK) return Optional.empty();
+
+        JSONObject record = new JSONObject().put("id", zcrmLeadId);
+        return Optional.of(new ZohoFetchResponse(new JSONObject().put("data", new JSONArray().put(record)).toString()));
+    }
+
+
+    private ZohoLeadUpsertResponse upsert(String recordId) {
+        tokenService.getAccessToken(ZohoModuleApiName.LEADS);
+
+        return switch (endpoint.call()) {
+            case OK -> new ZohoLeadUpsertResponse(new JSONObject().put("data", new JSONArray().put(new JSONObject()
+                    .put("code", "SUCCESS")
+                    .put("details", new JSONObject().put("id", recordId)))).toString());
+            case RATE_LIMITED -> new ZohoLeadUpsertResponse(new JSONObject()
+                    .put("code", "TOO_MANY_REQUESTS")
+                    .put("details", new JSONObject()).toString());
+            case ERROR -> new ZohoLeadUpsertResponse("{}");
+        };
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.saleset.integration.twilio.dto;
+
+import java.util.Map;
+
+public record DeliveryStatusStats(long received, long written, long dropped, long failedWrites, int buffered,
+                                  Map<String, Long> receivedByStatus) {}
@@ -0,0 +1,4 @@
+package com.saleset.integration.twilio.dto;
+
+public record PhoneLookupCacheStats(long memoryHits, long databaseHits, long misses, long memorySize,
+                                    double hitRate) {}
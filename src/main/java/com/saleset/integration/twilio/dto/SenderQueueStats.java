@@ -0,0 +1,7 @@
+package com.saleset.integration.twilio.dto;
+
+/**
+ * Snapshot of one sender number's send queue: how many sends are waiting for a token right now,
+ * how many went out, and how long they waited.
+ */
+public record SenderQueueStats(String fromNumber, int queueDepth, long sent, double avgWaitMillis, double maxWaitMillis) {}
@@ -0,0 +1,129 @@
+package com.saleset.integration.twilio.service;
+
+import com.saleset.core.dao.MessageDeliveryRepo;
+import com.saleset.core.entities.MessageDelivery;
+import com.saleset.integration.twilio.dto.DeliveryStatusStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decouples Twilio status callbacks from the database. Callbacks only enqueue their update into a
+ * bounded in-memory buffer, which a background flusher drains every
+ * {@code twilio.deliveries.flushMillis} into {@code message_deliveries} in batches of
+ * {@code twilio.deliveries.batchSize}.
+ * <p>
+ * When the buffer is full, new updates are rejected so the webhook can tell Twilio to retry. A batch
+ * that fails to write is logged and dropped. The buffer is flushed once more on shutdown.
+ */
+@Service
+public class DeliveryStatusBuffer {
+
+    private final Logger logger = LoggerFactory.getLogger(DeliveryStatusBuffer.class);
+
+    private final MessageDeliveryRepo messageDeliveryRepo;
+    private final BlockingQueue<MessageDelivery> buffer;
+    private final int batchSize;
+    private final long flushMillis;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final Map<String, LongAdder> receivedByStatus = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DeliveryStatusBuffer(MessageDeliveryRepo messageDeliveryRepo,
+                                @Value("${twilio.deliveries.bufferCapacity:50000}") int bufferCapacity,
+                                @Value("${twilio.deliveries.batchSize:500}") int batchSize,
+                                @Value("${twilio.deliveries.flushMillis:1000}") long flushMillis) {
+        this.messageDeliveryRepo = messageDeliveryRepo;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushMillis = flushMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler.setThreadNamePrefix("delivery-flush-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(flushMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        flush();
+    }
+
+
+    /**
+     * Queues a status update for the next flush without blocking.
+     *
+     * @param delivery The status update.
+     * @return {@code false} if the buffer is full and the update was not accepted.
+     */
+    public boolean offer(MessageDelivery delivery) {
+        if (!buffer.offer(delivery)) {
+            dropped.increment();
+            return false;
+        }
+
+        received.increment();
+        receivedByStatus.computeIfAbsent(String.valueOf(delivery.getStatus()), status -> new LongAdder()).increment();
+        return true;
+    }
+
+
+    /**
+     * Writes everything currently buffered, one batch at a time.
+     *
+     * @return The number of updates written.
+     */
+    public synchronized int flush() {
+        int flushed = 0;
+        List<MessageDelivery> batch = new ArrayList<>(batchSize);
+
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                messageDeliveryRepo.insertBatch(batch);
+                written.add(batch.size());
+                flushed += batch.size();
+            } catch (DataAccessException ex) {
+                failedWrites.add(batch.size());
+                logger.error("Failed to write {} delivery status updates starting at {} --- Message: {}",
+                        batch.size(), batch.get(0).getMessageSid(), ex.getMessage());
+            }
+            batch.clear();
+        }
+
+        return flushed;
+    }
+
+
+    public DeliveryStatusStats getStats() {
+        Map<String, Long> byStatus = new TreeMap<>();
+        receivedByStatus.forEach((status, count) -> byStatus.put(status, count.sum()));
+
+        return new DeliveryStatusStats(received.sum(), written.sum(), dropped.sum(), failedWrites.sum(),
+                buffer.size(), byStatus);
+    }
+
+}
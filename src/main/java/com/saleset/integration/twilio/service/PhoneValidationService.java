@@ -2,23 +2,38 @@ package com.saleset.integration.twilio.service;
 
 import com.saleset.core.dto.request.LeadRequest;
 import com.saleset.core.enums.PhoneLineType;
+import com.saleset.core.service.cache.PhoneLookupCacheManager;
 import com.saleset.core.util.PhoneNumberNormalizer;
+import com.saleset.integration.twilio.dto.PhoneNumberDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class PhoneValidationService {
 
     private final Logger logger = LoggerFactory.getLogger(PhoneValidationService.class);
 
-    private final TwilioManager twilioManager;
+    private final PhoneLookupCacheManager phoneLookupCache;
+
+    @Value("${phone.lookup.timeoutMillis:3000}")
+    private long lookupTimeoutMillis;
+
+    // Line type assumed when Twilio doesn't answer in time; MOBILE keeps the lead in SMS outreach
+    @Value("${phone.lookup.fallbackType:MOBILE}")
+    private PhoneLineType fallbackLineType;
 
     @Autowired
-    public PhoneValidationService(TwilioManager twilioManager) { this.twilioManager = twilioManager; }
+    public PhoneValidationService(PhoneLookupCacheManager phoneLookupCache) { this.phoneLookupCache = phoneLookupCache; }
 
 
 
@@ -27,7 +42,8 @@ public class PhoneValidationService {
      * Validates and normalizes phone numbers for the given lead data.
      * If no valid phone numbers are found, the method returns false.
      * - If only the secondary number is provided, it is swapped to primary.
-     * - Uses Twilio's Lookup API to validate and determine the type of phone numbers.
+     * - Uses Twilio's Lookup API to validate and determine the type of phone numbers, through the
+     *   phone lookup cache so repeat submissions skip the network call.
      * - Handles cases where secondary phone types can be null.
      *
      * @param leadData The lead data containing phone numbers.
@@ -63,23 +79,48 @@ public class PhoneValidationService {
 
 
 
+    /*
+     * Looks up both numbers concurrently, each bounded by phone.lookup.timeoutMillis. A lookup that
+     * times out falls back to phone.lookup.fallbackType. Logs the time saved over looking the numbers
+     * up one after the other.
+     */
     private void normalizeAndSetPhoneTypes(LeadRequest leadData) {
         Optional<String> optPrimary = PhoneNumberNormalizer.normalizeToE164(leadData.getPrimaryPhone());
         Optional<String> optSecondary = PhoneNumberNormalizer.normalizeToE164(leadData.getSecondaryPhone());
 
+        long start = System.nanoTime();
+        Optional<TimedLookup> primaryLookup = optPrimary.map(this::startLookup);
+        Optional<TimedLookup> secondaryLookup = optSecondary.map(this::startLookup);
+
         optPrimary.ifPresent(primaryPhone -> {
-            leadData.setPrimaryPhoneType(twilioManager.lookupPhoneNumber(primaryPhone).getType());
+            leadData.setPrimaryPhoneType(primaryLookup.get().await());
             if (leadData.getPrimaryPhoneType() != PhoneLineType.INVALID) {
                 leadData.setPrimaryPhone(primaryPhone);
             }
         });
 
         optSecondary.ifPresent(secondaryPhone -> {
-            leadData.setSecondaryPhoneType(twilioManager.lookupPhoneNumber(secondaryPhone).getType());
+            leadData.setSecondaryPhoneType(secondaryLookup.get().await());
             if (leadData.getSecondaryPhoneType() != PhoneLineType.INVALID) {
                 leadData.setSecondaryPhone(secondaryPhone);
             }
         });
+
+        if (primaryLookup.isPresent() && secondaryLookup.isPresent()) {
+            long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long sequentialMillis = primaryLookup.get().elapsedMillis() + secondaryLookup.get().elapsedMillis();
+            logger.info("Phone lookups took {} ms ({} ms sequential equivalent, {} ms saved)",
+                    wallMillis, sequentialMillis, Math.max(0, sequentialMillis - wallMillis));
+        }
+    }
+
+    private TimedLookup startLookup(String phoneE164) {
+        long start = System.nanoTime();
+        CompletableFuture<PhoneLineType> lineType = phoneLookupCache.lookupAsync(phoneE164)
+                .thenApply(PhoneNumberDetails::getType);
+        CompletableFuture<Long> elapsedNanos = lineType.handle((type, ex) -> System.nanoTime() - start);
+
+        return new TimedLookup(phoneE164, lineType, elapsedNanos);
     }
 
 
@@ -90,4 +131,50 @@ public class PhoneValidationService {
                 (leadData.getSecondaryPhoneType() != PhoneLineType.INVALID && leadData.getSecondaryPhoneType() != null);
     }
 
-}
\ No newline at end of file
+
+
+
+    private class TimedLookup {
+
+        private final String phoneE164;
+        private final CompletableFuture<PhoneLineType> lineType;
+        private final CompletableFuture<Long> elapsedNanos;
+        private boolean timedOut;
+
+        TimedLookup(String phoneE164, CompletableFuture<PhoneLineType> lineType, CompletableFuture<Long> elapsedNanos) {
+            this.phoneE164 = phoneE164;
+            this.lineType = lineType;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /*
+         * Waits for the lookup until the per-call timeout and returns the fallback type if it didn't
+         * finish in time. Twilio errors other than an unknown number are rethrown as before.
+         */
+        PhoneLineType await() {
+            try {
+                return lineType.get(lookupTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                timedOut = true;
+                logger.warn("Phone lookup for {} timed out after {} ms, assuming {}",
+                        phoneE164, lookupTimeoutMillis, fallbackLineType);
+                return fallbackLineType;
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+                throw new CompletionException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return fallbackLineType;
+            }
+        }
+
+        /*
+         * Only called after await(). The timing stage runs right after the lookup completes, but may not
+         * have finished when await() returns, so it is joined rather than read with getNow().
+         */
+        long elapsedMillis() {
+            return timedOut ? lookupTimeoutMillis : TimeUnit.NANOSECONDS.toMillis(elapsedNanos.join());
+        }
+    }
+
+}
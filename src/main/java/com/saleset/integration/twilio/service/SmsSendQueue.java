@@ -0,0 +1,180 @@
+package com.saleset.integration.twilio.service;
+
+import com.saleset.integration.twilio.dto.SenderQueueStats;
+import com.twilio.rest.api.v2010.account.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Paces outbound SMS per sender number so large outreach runs drain at the carrier's sustainable
+ * rate instead of being queued or filtered by it.
+ * <p>
+ * Each from-number gets its own token bucket refilled at {@code twilio.sms.messagesPerSecond}
+ * and holding at most {@code twilio.sms.burst} tokens. Callers block until their number has a
+ * token, up to a maximum wait they pass in, then hand off to {@link TwilioManager#sendSMS}. A caller
+ * whose token would come later than that is turned away without using one. Per-number queue depth
+ * and wait times are exposed through {@link #getStats()}.
+ * <p>
+ * The buckets are per JVM, and every instance with {@code outbox.relay.enabled=true} sends. The
+ * configured rate and burst are the totals per number across the deployment, so each instance gets
+ * an equal share of them: they are divided by {@code twilio.sms.relayInstances}. That count is static
+ * and must be changed whenever relay instances are scaled: set too low, the instances together exceed
+ * Twilio's per-number limit; set too high, capacity goes unused. The burst share may be fractional,
+ * in which case every send on this instance waits for its share of the rate.
+ */
+@Service
+public class SmsSendQueue {
+
+    private final Logger logger = LoggerFactory.getLogger(SmsSendQueue.class);
+
+    private final TwilioManager twilioManager;
+    private final double messagesPerSecond;
+    private final double burst;
+    private final Map<String, SenderBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SmsSendQueue(TwilioManager twilioManager,
+                        @Value("${twilio.sms.messagesPerSecond:1.0}") double messagesPerSecond,
+                        @Value("${twilio.sms.burst:1}") int burst,
+                        @Value("${twilio.sms.relayInstances:1}") int relayInstances) {
+        int instances = Math.max(1, relayInstances);
+        this.twilioManager = twilioManager;
+        this.messagesPerSecond = messagesPerSecond / instances;
+        this.burst = (double) burst / instances;
+
+        logger.info("SMS pacing per sender number on this instance: {} msg/s, burst {} " +
+                        "(totals {} msg/s, burst {}, split across {} relay instances)",
+                this.messagesPerSecond, this.burst, messagesPerSecond, burst, instances);
+        if (instances > 1) {
+            logger.warn("twilio.sms.relayInstances={} must match the number of instances with outbox.relay.enabled=true; " +
+                    "otherwise the per-number rate is exceeded or underused", instances);
+        }
+    }
+
+
+    /**
+     * Waits for a send token on the given from-number, then sends the message. If no token is available
+     * within {@code maxWait}, nothing is sent and no token is used.
+     *
+     * @param from        Sending number.
+     * @param to          Recipient number.
+     * @param messageBody Message text.
+     * @param maxWait     Longest the caller may wait for a token, e.g. what remains of its claim on the message.
+     * @return The Twilio message resource, or empty if no token was available within {@code maxWait}.
+     * @throws IllegalStateException if the thread is interrupted while waiting; the message is not sent.
+     */
+    public Optional<Message> send(String from, String to, String messageBody, Duration maxWait) {
+        SenderBucket bucket = buckets.computeIfAbsent(from,
+                number -> new SenderBucket(number, messagesPerSecond, burst));
+
+        long waitNanos = bucket.acquire(Math.max(0, maxWait.toNanos()));
+        if (waitNanos < 0) {
+            logger.debug("SMS from {} would wait more than {} ms for a send token, not sending", from, maxWait.toMillis());
+            return Optional.empty();
+        }
+        if (waitNanos > 0) {
+            logger.debug("SMS from {} waited {} ms for a send token", from, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+
+        return Optional.of(twilioManager.sendSMS(from, to, messageBody));
+    }
+
+
+    public List<SenderQueueStats> getStats() {
+        return buckets.values().stream()
+                .map(SenderBucket::snapshot)
+                .sorted(Comparator.comparing(SenderQueueStats::fromNumber))
+                .toList();
+    }
+
+
+    /*
+     * Reservation-style token bucket: each caller reserves the time its token will be available under
+     * the lock, then sleeps outside it, so waiting callers queue up in arrival order without holding it.
+     * A caller whose token would arrive after its maximum wait reserves nothing.
+     */
+    private static final class SenderBucket {
+
+        private final String fromNumber;
+        private final long intervalNanos;
+        private final double maxStoredTokens;
+
+        private double storedTokens;
+        private long nextFreeNanos = System.nanoTime();
+
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+        SenderBucket(String fromNumber, double messagesPerSecond, double burst) {
+            this.fromNumber = fromNumber;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / messagesPerSecond);
+            this.maxStoredTokens = burst;
+            this.storedTokens = burst;
+        }
+
+        // Returns the time waited, or -1 if the token would have taken longer than waitLimitNanos.
+        long acquire(long waitLimitNanos) {
+            queueDepth.incrementAndGet();
+            try {
+                long waitNanos = reserve(waitLimitNanos);
+                if (waitNanos < 0) return waitNanos;
+                if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+
+                sent.incrementAndGet();
+                totalWaitNanos.addAndGet(waitNanos);
+                maxWaitNanos.accumulate(waitNanos);
+                return waitNanos;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting to send from " + fromNumber, ex);
+            } finally {
+                queueDepth.decrementAndGet();
+            }
+        }
+
+        private synchronized long reserve(long waitLimitNanos) {
+            long now = System.nanoTime();
+            if (now > nextFreeNanos) {
+                storedTokens = Math.min(maxStoredTokens, storedTokens + (double) (now - nextFreeNanos) / intervalNanos);
+                nextFreeNanos = now;
+            }
+
+            if (storedTokens >= 1.0) {
+                storedTokens -= 1.0;
+                return 0;
+            }
+
+            // Not enough credit: push the accounting horizon out to when this caller's token is refilled.
+            long tokenAtNanos = nextFreeNanos + (long) ((1.0 - storedTokens) * intervalNanos);
+            if (tokenAtNanos - now > waitLimitNanos) return -1;
+
+            nextFreeNanos = tokenAtNanos;
+            storedTokens = 0;
+            return nextFreeNanos - now;
+        }
+
+        SenderQueueStats snapshot() {
+            long count = sent.get();
+            double avgWaitMillis = count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000;
+            return new SenderQueueStats(fromNumber, queueDepth.get(), count, avgWaitMillis,
+                    maxWaitNanos.get() / 1_000_000.0);
+        }
+    }
+
+}
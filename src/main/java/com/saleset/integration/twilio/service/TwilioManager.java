@@ -2,59 +2,201 @@ package com.saleset.integration.twilio.service;
 
 import com.saleset.core.enums.PhoneLineType;
 import com.saleset.integration.twilio.dto.PhoneNumberDetails;
-import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
 import com.twilio.rest.lookups.v2.PhoneNumber;
+import com.twilio.security.RequestValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the application's single {@link TwilioRestClient}. The client is built once at startup on a
+ * pooled, keep-alive HTTP connection manager with explicit connect and read timeouts, so every send
+ * and lookup reuses warm connections instead of re-initializing the global Twilio client per call.
+ * <p>
+ * The {@code *Async} variants run on a bounded {@code twilio-async-} pool sized to the connection
+ * pool rather than the SDK's global executor, so callers can pipeline requests without starving
+ * the HTTP client.
+ * <p>
+ * When {@code twilio.sms.statusCallbackUrl} is set, every message asks Twilio to post its delivery
+ * status updates there.
+ */
 @Service
+@Profile("!loadtest")
 public class TwilioManager {
 
+    // Twilio errors that reject the message itself: 21211 invalid 'To' number, 21214 'To' cannot be reached,
+    // 21408 region not enabled, 21610 recipient unsubscribed (STOP), 21612 'To' not reachable by SMS,
+    // 21614 'To' not a mobile number, 21617 body too long.
+    private static final Set<Integer> PERMANENT_SMS_ERROR_CODES = Set.of(21211, 21214, 21408, 21610, 21612, 21614, 21617);
+
     @Value("${twilio.account.sid}")
     private String accountSid;
 
     @Value("${twilio.auth.token}")
     private String authToken;
 
+    @Value("${twilio.http.maxConnections:20}")
+    private int maxConnections;
+
+    @Value("${twilio.http.connectTimeoutMillis:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${twilio.http.readTimeoutMillis:15000}")
+    private int readTimeoutMillis;
+
+    @Value("${twilio.http.idleTimeoutSeconds:30}")
+    private int idleTimeoutSeconds;
+
+    @Value("${twilio.sms.statusCallbackUrl:}")
+    private String statusCallbackUrl;
+
+    @Value("${twilio.sms.statusCallbackValidateSignature:true}")
+    private boolean validateCallbackSignature;
+
+    private TwilioRestClient restClient;
+    private RequestValidator requestValidator;
+    private ExecutorService asyncExecutor;
+
+    @PostConstruct
+    public void init() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .build();
+
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .evictExpiredConnections();
+
+        restClient = new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(httpClientBuilder))
+                .build();
+        requestValidator = new RequestValidator(authToken);
+        asyncExecutor = Executors.newFixedThreadPool(maxConnections, new CustomizableThreadFactory("twilio-async-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (asyncExecutor != null) asyncExecutor.shutdown();
+    }
+
+
     public Message sendSMS(String from, String to, String messageBody) {
-        Twilio.init(accountSid, authToken);
+        MessageCreator creator = Message.creator(
+                new com.twilio.type.PhoneNumber(to),
+                new com.twilio.type.PhoneNumber(from),
+                messageBody);
+        if (!statusCallbackUrl.isBlank()) creator.setStatusCallback(statusCallbackUrl);
+
+        return creator.create(restClient);
+    }
+
+
+    /**
+     * Tells whether a failed {@link #sendSMS} can never succeed for the same message, e.g. because the
+     * recipient number is invalid, unreachable by SMS or has opted out. Retrying those only repeats
+     * the error; rate limits, server errors and network failures return {@code false}.
+     *
+     * @param failure The exception thrown by {@link #sendSMS}.
+     * @return {@code true} if Twilio rejected the message with a non-retryable error code.
+     */
+    public static boolean isPermanentSmsFailure(Throwable failure) {
+        return failure instanceof ApiException apiException
+                && apiException.getCode() != null
+                && PERMANENT_SMS_ERROR_CODES.contains(apiException.getCode());
+    }
+
 
-        return Message.creator(
-                        new com.twilio.type.PhoneNumber(to),
-                        new com.twilio.type.PhoneNumber(from),
-                        messageBody)
-                .create();
+    /**
+     * Non-blocking variant of {@link #sendSMS}.
+     *
+     * @return A future completed with the Twilio message resource, or exceptionally with the API error.
+     */
+    public CompletableFuture<Message> sendSMSAsync(String from, String to, String messageBody) {
+        return CompletableFuture.supplyAsync(() -> sendSMS(from, to, messageBody), asyncExecutor);
     }
 
+
     /**
      * Looks up a phone number using the Twilio API and categorizes it as either mobile or landline based on its line type.
      * <p>
-     * This method initializes Twilio with the account credentials, fetches the phone number details including
-     * line type intelligence, and then categorizes the line type as 'mobile' or 'landline'. If the phone number is not
-     * valid or if the Twilio API returns a 404 error, the method returns null.
+     * This method fetches the phone number details including line type intelligence, and then categorizes the
+     * line type as 'mobile' or 'landline'. If the phone number is not valid or if the Twilio API returns a 404
+     * error, the method returns details with an INVALID line type.
      *
      * @param phoneNumber The phone number to be looked up.
-     * @return PhoneNumberDetails with the categorized line type or null if the number is invalid or not found.
+     * @return PhoneNumberDetails with the categorized line type, INVALID if the number is invalid or not found.
      * @throws com.twilio.exception.ApiException if there are issues contacting the Twilio API beyond a 404 error.
      */
     public PhoneNumberDetails lookupPhoneNumber(String phoneNumber) {
         try {
-            Twilio.init(accountSid, authToken);
-            PhoneNumber number = PhoneNumber.fetcher(phoneNumber).setFields("line_type_intelligence").fetch();
-
-            // Return null if number is not valid or essential data is missing
-            if (!number.getValid() || number.getLineTypeIntelligence() == null ||
-                    number.getLineTypeIntelligence().get("type") == null) return new PhoneNumberDetails(PhoneLineType.INVALID);
-
-            PhoneLineType lineType = categorizeLineType(number.getLineTypeIntelligence().get("type").toString());
-            return new PhoneNumberDetails(lineType);
-        } catch (com.twilio.exception.ApiException twilioApiException) {
+            PhoneNumber number = PhoneNumber.fetcher(phoneNumber).setFields("line_type_intelligence").fetch(restClient);
+            return toPhoneNumberDetails(number);
+        } catch (ApiException twilioApiException) {
             if (twilioApiException.getStatusCode() == 404) return new PhoneNumberDetails(PhoneLineType.INVALID);
             else throw twilioApiException;
         }
     }
 
+
+    /**
+     * Non-blocking variant of {@link #lookupPhoneNumber}, with the same 404 handling.
+     *
+     * @return A future completed with the categorized details, or exceptionally with any other API error.
+     */
+    public CompletableFuture<PhoneNumberDetails> lookupPhoneNumberAsync(String phoneNumber) {
+        return CompletableFuture.supplyAsync(() -> lookupPhoneNumber(phoneNumber), asyncExecutor);
+    }
+
+
+    /**
+     * Checks the {@code X-Twilio-Signature} of a status callback against the configured callback URL
+     * and the posted form parameters. Always passes when signature validation is turned off.
+     *
+     * @param params    The posted form parameters.
+     * @param signature The signature header, or null if absent.
+     * @return Whether the callback may be trusted.
+     */
+    public boolean isAuthenticStatusCallback(Map<String, String> params, String signature) {
+        if (!validateCallbackSignature) return true;
+        return signature != null && requestValidator.validate(statusCallbackUrl, params, signature);
+    }
+
+
+    private PhoneNumberDetails toPhoneNumberDetails(PhoneNumber number) {
+        // Invalid if number is not valid or essential data is missing
+        if (!number.getValid() || number.getLineTypeIntelligence() == null ||
+                number.getLineTypeIntelligence().get("type") == null) return new PhoneNumberDetails(PhoneLineType.INVALID);
+
+        PhoneLineType lineType = categorizeLineType(number.getLineTypeIntelligence().get("type").toString());
+        return new PhoneNumberDetails(lineType);
+    }
+
     private PhoneLineType categorizeLineType(String lineType) {
         if ("mobile".equalsIgnoreCase(lineType) ||
                 "fixedVoip".equalsIgnoreCase(lineType) ||
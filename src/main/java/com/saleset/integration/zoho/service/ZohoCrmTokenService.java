@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
@@ -35,6 +36,7 @@ import java.util.Map;
  * 5. If the token is valid, the stored access token is returned.
  */
 @Service
+@Profile("!loadtest")
 public class ZohoCrmTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(ZohoCrmTokenService.class);
@@ -0,0 +1,162 @@
+package com.saleset.core.dao;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the contact-by-phone lookup against a million contacts, before and after
+ * {@code contact_phones}: the old {@code OR} across {@code primary_phone} and {@code secondary_phone},
+ * and the indexed {@code IN} lookup on {@code contact_phones} joined to the contact. Each lookup uses
+ * one existing primary number and one unknown secondary number, like a returning lead with a new
+ * second phone.
+ * <p>
+ * Needs a scratch MySQL schema; {@code bench_contacts} and {@code bench_contact_phones} are created and
+ * seeded there on the first run (this takes a few minutes) and reused afterwards. Run from the project
+ * root after {@code mvn test-compile}:
+ * <pre>
+ * java -Dbench.jdbcUrl=jdbc:mysql://localhost:3306/saleset_bench?rewriteBatchedStatements=true \
+ *     -Dbench.user=root -Dbench.password=secret \
+ *     -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.saleset.core.dao.ContactPhoneLookupBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContactPhoneLookupBenchmark {
+
+    private static final int CONTACTS = 1_000_000;
+    private static final int SEED_BATCH = 10_000;
+
+    private static final String OR_LOOKUP = "SELECT id, primary_phone, secondary_phone FROM bench_contacts " +
+            "WHERE primary_phone = ? OR secondary_phone = ? OR primary_phone = ? OR secondary_phone = ? LIMIT 1";
+
+    private static final String IN_LOOKUP = "SELECT c.id, c.primary_phone, c.secondary_phone " +
+            "FROM bench_contact_phones cp JOIN bench_contacts c ON c.id = cp.contact_id " +
+            "WHERE cp.phone_e164 IN (?, ?) " +
+            "ORDER BY CASE WHEN cp.phone_e164 = ? THEN 0 ELSE 1 END, c.id LIMIT 1";
+
+    private Connection connection;
+    private PreparedStatement orLookup;
+    private PreparedStatement inLookup;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty("bench.jdbcUrl"),
+                System.getProperty("bench.user"), System.getProperty("bench.password"));
+        seedIfEmpty();
+
+        orLookup = connection.prepareStatement(OR_LOOKUP);
+        inLookup = connection.prepareStatement(IN_LOOKUP);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int orAcrossPhoneColumns() throws SQLException {
+        String primary = knownPhone();
+        String secondary = unknownPhone();
+        orLookup.setString(1, primary);
+        orLookup.setString(2, primary);
+        orLookup.setString(3, secondary);
+        orLookup.setString(4, secondary);
+        return firstId(orLookup);
+    }
+
+    @Benchmark
+    public int inOnContactPhones() throws SQLException {
+        String primary = knownPhone();
+        inLookup.setString(1, primary);
+        inLookup.setString(2, unknownPhone());
+        inLookup.setString(3, primary);
+        return firstId(inLookup);
+    }
+
+
+    private String knownPhone() { return phone(random.nextInt(CONTACTS)); }
+
+    private String unknownPhone() { return phone(3 * CONTACTS + random.nextInt(CONTACTS)); }
+
+    // Distinct +1 numbers: contact i has primary phone(i) and secondary phone(CONTACTS + i).
+    private static String phone(int n) { return "+1516" + String.format("%07d", n); }
+
+    private static int firstId(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    private void seedIfEmpty() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS bench_contacts (id INT PRIMARY KEY, " +
+                    "primary_phone VARCHAR(20), secondary_phone VARCHAR(20), " +
+                    "INDEX idx_primary_phone (primary_phone), INDEX idx_secondary_phone (secondary_phone))");
+            ddl.execute("CREATE TABLE IF NOT EXISTS bench_contact_phones (phone_e164 VARCHAR(20) PRIMARY KEY, " +
+                    "contact_id INT NOT NULL, INDEX idx_contact_id (contact_id))");
+
+            try (ResultSet rs = ddl.executeQuery("SELECT COUNT(*) FROM bench_contacts")) {
+                rs.next();
+                if (rs.getInt(1) >= CONTACTS) return;
+            }
+            ddl.execute("TRUNCATE TABLE bench_contacts");
+            ddl.execute("TRUNCATE TABLE bench_contact_phones");
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement contacts = connection.prepareStatement(
+                     "INSERT INTO bench_contacts (id, primary_phone, secondary_phone) VALUES (?, ?, ?)");
+             PreparedStatement phones = connection.prepareStatement(
+                     "INSERT INTO bench_contact_phones (phone_e164, contact_id) VALUES (?, ?)")) {
+            for (int i = 0; i < CONTACTS; i++) {
+                contacts.setInt(1, i + 1);
+                contacts.setString(2, phone(i));
+                contacts.setString(3, phone(CONTACTS + i));
+                contacts.addBatch();
+
+                for (String number : new String[] { phone(i), phone(CONTACTS + i) }) {
+                    phones.setString(1, number);
+                    phones.setInt(2, i + 1);
+                    phones.addBatch();
+                }
+
+                if ((i + 1) % SEED_BATCH == 0) {
+                    contacts.executeBatch();
+                    phones.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContactPhoneLookupBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.jdbcUrl=" + System.getProperty("bench.jdbcUrl"),
+                        "-Dbench.user=" + System.getProperty("bench.user"),
+                        "-Dbench.password=" + System.getProperty("bench.password"))
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.saleset.core.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class EventCacheManagerTest extends EventDeduplicatorContractTest {
+
+    @Override
+    protected EventDeduplicator newDeduplicator() {
+        return new EventCacheManager(Caffeine.newBuilder().maximumSize(10_000).build());
+    }
+
+}
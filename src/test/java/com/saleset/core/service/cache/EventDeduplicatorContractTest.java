@@ -0,0 +1,114 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dto.request.EventRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every {@link EventDeduplicator} backend must share. Fires identical events for the same
+ * lead from many threads at once and checks that exactly one of them is let through, over many rounds
+ * so interleavings actually collide. Subclasses supply the backend.
+ */
+abstract class EventDeduplicatorContractTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 500;
+
+    protected EventDeduplicator deduplicator;
+    private ExecutorService executor;
+
+    protected abstract EventDeduplicator newDeduplicator();
+
+    @BeforeEach
+    void setUpContract() {
+        deduplicator = newDeduplicator();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDownContract() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exactlyOneOfSimultaneousIdenticalEventsIsAccepted() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String leadUUID = UUID.randomUUID().toString();
+            assertEquals(1, fireConcurrently(leadUUID, i -> "click"), "round " + round);
+        }
+    }
+
+    @Test
+    void eachEventTypeIsAcceptedOncePerLead() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String leadUUID = UUID.randomUUID().toString();
+            assertEquals(2, fireConcurrently(leadUUID, i -> i % 2 == 0 ? "click" : "open"), "round " + round);
+        }
+    }
+
+    @Test
+    void repeatsAreRejectedAndEventTypeMatchingIgnoresCase() {
+        String leadUUID = UUID.randomUUID().toString();
+
+        assertTrue(deduplicator.cacheEvent(event(leadUUID, "Click")));
+        assertFalse(deduplicator.cacheEvent(event(leadUUID, "click")));
+        assertTrue(deduplicator.cacheEvent(event(leadUUID, "open")));
+        assertFalse(deduplicator.cacheEvent(event(leadUUID, "OPEN")));
+    }
+
+    @Test
+    void statsCountAcceptedAndRejectedEvents() {
+        String leadUUID = UUID.randomUUID().toString();
+        deduplicator.cacheEvent(event(leadUUID, "click"));
+        deduplicator.cacheEvent(event(leadUUID, "click"));
+        deduplicator.cacheEvent(event(leadUUID, "open"));
+
+        assertEquals(2, deduplicator.getStats().accepted());
+        assertEquals(1, deduplicator.getStats().rejected());
+    }
+
+
+    private int fireConcurrently(String leadUUID, IntFunction<String> eventTypeForThread)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Boolean>> results = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            String eventType = eventTypeForThread.apply(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return deduplicator.cacheEvent(event(leadUUID, eventType));
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) accepted++;
+        }
+        return accepted;
+    }
+
+    protected static EventRequest event(String leadUUID, String eventType) {
+        EventRequest eventData = new EventRequest();
+        eventData.setLeadUUID(leadUUID);
+        eventData.setEvent(eventType);
+        return eventData;
+    }
+
+}
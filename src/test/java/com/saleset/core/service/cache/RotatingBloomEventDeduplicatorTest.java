@@ -0,0 +1,53 @@
+package com.saleset.core.service.cache;
+
+import com.saleset.core.dto.EventDedupStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the shared contract against the Bloom backend, plus its rotation and fixed-memory behaviour.
+ * The rotation scheduler isn't started; rotation is driven by hand.
+ */
+class RotatingBloomEventDeduplicatorTest extends EventDeduplicatorContractTest {
+
+    private static final int GENERATIONS = 4;
+
+    @Override
+    protected EventDeduplicator newDeduplicator() {
+        return new RotatingBloomEventDeduplicator(180, GENERATIONS, 10_000, 0.001);
+    }
+
+    @Test
+    void eventsAreRememberedUntilTheirBucketRotatesOut() {
+        RotatingBloomEventDeduplicator bloom = (RotatingBloomEventDeduplicator) deduplicator;
+        String leadUUID = UUID.randomUUID().toString();
+        assertTrue(bloom.cacheEvent(event(leadUUID, "click")));
+
+        for (int i = 0; i < GENERATIONS - 1; i++) {
+            bloom.rotate();
+            assertFalse(bloom.cacheEvent(event(leadUUID, "click")), "rotation " + i);
+        }
+
+        bloom.rotate();
+        assertTrue(bloom.cacheEvent(event(leadUUID, "click")));
+    }
+
+    @Test
+    void memoryStaysFixedAsEventsArrive() {
+        long memoryBefore = deduplicator.getStats().memoryBytes();
+        for (int i = 0; i < 1_000; i++) {
+            deduplicator.cacheEvent(event(UUID.randomUUID().toString(), "open"));
+        }
+
+        EventDedupStats stats = deduplicator.getStats();
+        assertEquals("bloom", stats.backend());
+        assertEquals(memoryBefore, stats.memoryBytes());
+        assertTrue(stats.expectedFpp() > 0 && stats.expectedFpp() < 0.001);
+    }
+
+}
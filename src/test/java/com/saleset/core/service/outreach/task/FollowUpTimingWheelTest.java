@@ -0,0 +1,63 @@
+package com.saleset.core.service.outreach.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowUpTimingWheelTest {
+
+    private FollowUpTimingWheel wheel;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        TaskConfig taskConfig = new TaskConfig();
+        ReflectionTestUtils.setField(taskConfig, "dispatchMode", "wheel");
+        wheel = new FollowUpTimingWheel(taskConfig);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void leadsAlreadyDueWhenScheduledFireOnNextAdvance() {
+        wheel.schedule(1, now.minusMinutes(10));
+        wheel.schedule(2, now.minusSeconds(1));
+
+        assertEquals(List.of(1, 2), wheel.advance(now));
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(now.plusSeconds(5)).isEmpty());
+    }
+
+    @Test
+    void overdueLeadRescheduledIntoTheFutureWaitsForItsNewTime() {
+        wheel.schedule(1, now.minusMinutes(10));
+        wheel.schedule(1, now.plusSeconds(3));
+
+        assertTrue(wheel.advance(now).isEmpty());
+        assertEquals(List.of(1), wheel.advance(now.plusSeconds(5)));
+    }
+
+    @Test
+    void cancelledOverdueLeadDoesNotFire() {
+        wheel.schedule(1, now.minusMinutes(10));
+        wheel.cancel(1);
+
+        assertTrue(wheel.advance(now).isEmpty());
+    }
+
+    @Test
+    void futureLeadsFireOnceTheirTimeIsReached() {
+        wheel.schedule(1, now.plusSeconds(3));
+        wheel.schedule(2, now.plusMinutes(2));
+
+        assertTrue(wheel.advance(now).isEmpty());
+        assertEquals(List.of(1), wheel.advance(now.plusSeconds(5)));
+        assertEquals(List.of(2), wheel.advance(now.plusMinutes(2).plusSeconds(2)));
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.saleset.core.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PhoneNumberNormalizer} against the previous regex-based implementation on a mix
+ * of formatted, bare and country-coded inputs. Invalid inputs are only checked for equivalence, since
+ * the production path logs them.
+ * <p>
+ * Run from the project root after {@code mvn test-compile}:
+ * <pre>
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.saleset.core.util.PhoneNumberNormalizerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhoneNumberNormalizerBenchmark {
+
+    private static final String[] INPUTS = {
+            "(516) 555-1234",
+            "516-555-1234",
+            "5165551234",
+            "+1 631 555 9876",
+            "1.631.555.9876",
+            "+15165551234",
+            "516 555 1234 ",
+            "1 (631) 555-9876"
+    };
+
+    private static final String[] INVALID_INPUTS = { "555-1234", "44 20 7946 0958 12", "25165551234", "" };
+
+    private int index;
+
+    @Setup
+    public void verifyEquivalence() {
+        for (String input : concat(INPUTS, INVALID_INPUTS)) {
+            if (!Objects.equals(regexNormalizeToE164(input), PhoneNumberNormalizer.normalizeToE164(input))) {
+                throw new IllegalStateException("Implementations disagree on: " + input);
+            }
+        }
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private String nextInput() {
+        index = (index + 1) & 7;
+        return INPUTS[index];
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        blackhole.consume(regexNormalizeToE164(nextInput()));
+    }
+
+    @Benchmark
+    public void charScan(Blackhole blackhole) {
+        blackhole.consume(PhoneNumberNormalizer.normalizeToE164(nextInput()));
+    }
+
+    @Benchmark
+    public long charScanPacked() {
+        return PhoneNumberNormalizer.normalizeToE164Long(nextInput());
+    }
+
+    // The implementation replaced by the char-scanning normalizer, minus its error logging.
+    private static Optional<String> regexNormalizeToE164(String phoneNumber) {
+        if (phoneNumber == null) return Optional.empty();
+
+        String digitsOnly = phoneNumber.replaceAll("\\D", "");
+
+        if (digitsOnly.length() == 11 && digitsOnly.startsWith("1")) {
+            return Optional.of("+" + digitsOnly);
+        } else if (digitsOnly.length() == 10) {
+            return Optional.of("+1" + digitsOnly);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PhoneNumberNormalizerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
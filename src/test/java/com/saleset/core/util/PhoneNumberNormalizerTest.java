@@ -0,0 +1,66 @@
+package com.saleset.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the char-scanning {@link PhoneNumberNormalizer} gives the same result as the regex
+ * implementation it replaced, for valid and invalid inputs alike.
+ */
+class PhoneNumberNormalizerTest {
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {
+            // punctuation and spacing
+            "(516) 555-1234", "516-555-1234", "516.555.1234", " 516 555 1234 ", "5165551234",
+            // leading 1 or +1
+            "15165551234", "+15165551234", "+1 (631) 555-9876", "1-631-555-9876",
+            // too short
+            "", "555-1234", "516555123", "+1 516 555 123",
+            // too long, or 11 digits without a leading 1
+            "25165551234", "516555123456", "+1 516 555 12345", "44 20 7946 0958 12",
+            // letters and other non-digits
+            "516-555-CALL", "ext. 5165551234", "tel:+1-516-555-1234", "5l6555l234", "phone", "٥١٦٥٥٥١٢٣٤"
+    })
+    void agreesWithTheRegexImplementation(String input) {
+        Optional<String> expected = regexNormalizeToE164(input);
+
+        assertEquals(expected, PhoneNumberNormalizer.normalizeToE164(input), "normalizeToE164(" + input + ")");
+
+        long packed = PhoneNumberNormalizer.normalizeToE164Long(input);
+        assertEquals(expected, packed == PhoneNumberNormalizer.INVALID
+                ? Optional.empty()
+                : Optional.of(PhoneNumberNormalizer.toE164String(packed)), "normalizeToE164Long(" + input + ")");
+    }
+
+    @Test
+    void normalizesFormattedNumbersToE164() {
+        assertEquals(Optional.of("+15165551234"), PhoneNumberNormalizer.normalizeToE164("(516) 555-1234"));
+        assertEquals(Optional.of("+16315559876"), PhoneNumberNormalizer.normalizeToE164("+1 631 555 9876"));
+        assertEquals(15165551234L, PhoneNumberNormalizer.normalizeToE164Long("516.555.1234"));
+    }
+
+
+    // The implementation PhoneNumberNormalizer.normalizeToE164 had before the char scan.
+    private static Optional<String> regexNormalizeToE164(String phoneNumber) {
+        if (phoneNumber == null) return Optional.empty();
+
+        String digitsOnly = phoneNumber.replaceAll("\\D", "");
+
+        if (digitsOnly.length() == 11 && digitsOnly.startsWith("1")) {
+            return Optional.of("+" + digitsOnly);
+        } else if (digitsOnly.length() == 10) {
+            return Optional.of("+1" + digitsOnly);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+}